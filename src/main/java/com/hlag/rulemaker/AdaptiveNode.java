@@ -0,0 +1,41 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+
+/**
+ * Interprets a rule until it has been evaluated {@code promotionThreshold} times and then promotes it to the closure engine. Rules which
+ * run rarely never pay for the compilation, hot rules end up as a closure tree which the JIT can inline.
+ */
+final class AdaptiveNode implements CompiledNode {
+
+  private final JsonLogicNode node;
+  private final RuleMakerJsonLogic jsonLogic;
+  private final int promotionThreshold;
+
+  // Only a heuristic, lost updates between threads just delay the promotion
+  private int invocations;
+  private volatile CompiledNode promoted;
+
+  AdaptiveNode(JsonLogicNode node, RuleMakerJsonLogic jsonLogic, int promotionThreshold) {
+    this.node = node;
+    this.jsonLogic = jsonLogic;
+    this.promotionThreshold = promotionThreshold;
+  }
+
+  @Override
+  public Object evaluate(Object data) throws JsonLogicEvaluationException {
+    CompiledNode compiled = promoted;
+    if (compiled != null) {
+      return compiled.evaluate(data);
+    }
+    if (++invocations >= promotionThreshold) {
+      promoted = RuleEngine.CLOSURE.compile(node, jsonLogic);
+    }
+    return jsonLogic.evaluate(node, data);
+  }
+
+  boolean isPromoted() {
+    return promoted != null;
+  }
+}
@@ -0,0 +1,167 @@
+package com.hlag.rulemaker;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evaluates compiled rules asynchronously on an executor. At most {@code maxInFlight} evaluations run at the same time, further
+ * evaluations wait in a queue without blocking the caller and start as soon as a running one completes. At most {@code maxQueued}
+ * evaluations wait, any further evaluation is rejected. A spike of rule checks therefore can neither occupy all threads of a shared pool
+ * nor fill the heap with waiting evaluations.
+ *
+ * <p>On Java 21 and later {@link #newVirtualThreadExecutor()} provides an executor with a virtual thread per evaluation.
+ */
+public class AsyncRuleEvaluator {
+
+  public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+  public static final int DEFAULT_MAX_QUEUED = 10_000;
+
+  @Getter
+  private final Executor executor;
+  @Getter
+  private final int maxInFlight;
+  @Getter
+  private final int maxQueued;
+  private final Semaphore permits;
+  private final Queue<Evaluation> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+
+  public AsyncRuleEvaluator() {
+    this(null, null, null);
+  }
+
+  /**
+   * Creates the asynchronous evaluator, unset values fall back to their defaults.
+   *
+   * @param executor    The executor which runs the evaluations, {@link ForkJoinPool#commonPool()} by default.
+   * @param maxInFlight The maximum number of evaluations running at the same time, {@value #DEFAULT_MAX_IN_FLIGHT} by default.
+   * @param maxQueued   The maximum number of evaluations waiting for a running one to complete, {@value #DEFAULT_MAX_QUEUED} by default.
+   */
+  @Builder
+  private AsyncRuleEvaluator(Executor executor, Integer maxInFlight, Integer maxQueued) {
+    if (maxInFlight != null && maxInFlight < 1) {
+      throw new IllegalArgumentException("Maximum in-flight evaluations must be positive, was " + maxInFlight);
+    }
+    if (maxQueued != null && maxQueued < 0) {
+      throw new IllegalArgumentException("Maximum queued evaluations must not be negative, was " + maxQueued);
+    }
+    this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+    this.maxInFlight = maxInFlight != null ? maxInFlight : DEFAULT_MAX_IN_FLIGHT;
+    this.maxQueued = maxQueued != null ? maxQueued : DEFAULT_MAX_QUEUED;
+    this.permits = new Semaphore(this.maxInFlight);
+  }
+
+  /**
+   * Creates an executor which starts a virtual thread for each task. Virtual threads are looked up at runtime, so the library keeps
+   * running on Java 11.
+   *
+   * @return The executor, or empty if the running Java version has no virtual threads.
+   */
+  public static Optional<ExecutorService> newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return Optional.of((ExecutorService) factory.invoke(null));
+    } catch (ReflectiveOperationException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Evaluates the rule with the given data asynchronously.
+   *
+   * @param rule The rule to evaluate.
+   * @param data The data to evaluate the rule with.
+   * @return A future which completes with the result, or exceptionally with the exception or error of the evaluation. If the maximum
+   *     number of evaluations is already running and queued, the future fails with a {@link RejectedExecutionException}.
+   */
+  public CompletableFuture<Object> evaluateAsync(@NonNull CompiledRule rule, Map<String, Object> data) {
+    Evaluation evaluation = new Evaluation(rule, data, new CompletableFuture<>());
+    if (pending.isEmpty() && permits.tryAcquire()) {
+      if (!start(evaluation)) {
+        // The permit of the rejected evaluation is free again, evaluations queued while it was held must not wait for a completion
+        startPending();
+      }
+      return evaluation.future;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      return CompletableFuture.failedFuture(new RejectedExecutionException(
+        "Rule evaluation rejected, " + maxInFlight + " evaluations are running and " + maxQueued + " are queued"));
+    }
+    pending.add(evaluation);
+    startPending();
+    return evaluation.future;
+  }
+
+  /**
+   * Returns the number of evaluations which wait for a running one to complete.
+   *
+   * @return The number of queued evaluations.
+   */
+  public int getQueuedCount() {
+    return queued.get();
+  }
+
+  private void startPending() {
+    // Every caller which adds an evaluation and every completing or rejected evaluation tries to start the queued ones, so none is left
+    // behind. A rejected evaluation releases its permit, so the loop goes on with the next one.
+    while (!pending.isEmpty() && permits.tryAcquire()) {
+      Evaluation evaluation = pending.poll();
+      if (evaluation == null) {
+        permits.release();
+      } else {
+        queued.decrementAndGet();
+        start(evaluation);
+      }
+    }
+  }
+
+  /**
+   * Starts an evaluation which holds a permit. If the executor rejects it, its future fails and the permit is released.
+   *
+   * @return true if the evaluation has been started; false if it has been rejected.
+   */
+  private boolean start(Evaluation evaluation) {
+    try {
+      executor.execute(() -> {
+        try {
+          evaluation.future.complete(evaluation.rule.evaluate(evaluation.data));
+        } catch (Throwable e) {
+          // Errors like a StackOverflowError of a deeply nested rule complete the future as well, nobody waits for it forever
+          evaluation.future.completeExceptionally(e);
+        } finally {
+          permits.release();
+          startPending();
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      evaluation.future.completeExceptionally(e);
+      return false;
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class Evaluation {
+
+    private final CompiledRule rule;
+    private final Map<String, Object> data;
+    private final CompletableFuture<Object> future;
+  }
+}
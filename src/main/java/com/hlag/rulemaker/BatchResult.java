@@ -0,0 +1,93 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The results of evaluating one rule for a batch of data records, see {@link CompiledRule#evaluateBatch(java.util.List)}. A record which
+ * could not be evaluated has no value, its exception is kept in {@link #getErrors()} instead of aborting the batch.
+ */
+public class BatchResult {
+
+  private final Object[] values;
+  private final BitSet matches;
+  private final SortedMap<Integer, RuntimeException> errors;
+
+  BatchResult(Object[] values, RuntimeException[] errors) {
+    this.values = values;
+    this.matches = new BitSet(values.length);
+    SortedMap<Integer, RuntimeException> errorsByIndex = new TreeMap<>();
+    for (int i = 0; i < errors.length; i++) {
+      if (errors[i] != null) {
+        errorsByIndex.put(i, errors[i]);
+      } else if (JsonLogic.truthy(values[i])) {
+        matches.set(i);
+      }
+    }
+    this.errors = Collections.unmodifiableSortedMap(errorsByIndex);
+  }
+
+  /**
+   * Returns the number of evaluated records.
+   *
+   * @return The size of the batch.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Returns the result of a record.
+   *
+   * @param index The index of the record in the batch.
+   * @return The result of the evaluation, null if the record failed.
+   */
+  public Object get(int index) {
+    return values[index];
+  }
+
+  /**
+   * Returns the results of all records, in the order of the batch.
+   *
+   * @return A copy of the results, null for failed records.
+   */
+  public Object[] getValues() {
+    return values.clone();
+  }
+
+  /**
+   * Returns the records whose result is truthy in the sense of JsonLogic, which for predicates are the records matching the rule.
+   *
+   * @return A copy of the set of matching record indexes.
+   */
+  public BitSet getMatches() {
+    return (BitSet) matches.clone();
+  }
+
+  /**
+   * Checks if a record matches the rule.
+   *
+   * @param index The index of the record in the batch.
+   * @return true if the result of the record is truthy; false otherwise or if the record failed.
+   */
+  public boolean matches(int index) {
+    return matches.get(index);
+  }
+
+  /**
+   * Returns the exceptions of the records which could not be evaluated.
+   *
+   * @return The exceptions by record index, in the order of the batch.
+   */
+  public Map<Integer, RuntimeException> getErrors() {
+    return errors;
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+}
@@ -0,0 +1,321 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.expression.CustomNumericComparisonExpression;
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNodeType;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicPrimitive;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicVariable;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluator;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.IfExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.LogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.PreEvaluatedArgumentsExpression;
+import io.github.jamsesso.jsonlogic.utils.ArrayLike;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a JsonLogic syntax tree into a tree of closures. Operations are bound when the rule is compiled, literals are evaluated once
+ * and the most common operations (variables, logic, conditions and numeric comparisons) get specialized closures. Every other operation
+ * is still executed by its {@link JsonLogicExpression}, so the results are the same as the ones of the interpreter.
+ *
+ * <p>Variables with a slot read it directly when the data is a {@link Frame}. Every other closure gets the frame as nested maps. Shared
+ * subexpressions, which occur several times in the compiled trees, are compiled once and evaluated at most once per frame.
+ */
+final class ClosureCompiler {
+
+  private final RuleMakerJsonLogic jsonLogic;
+  private final JsonLogicEvaluator evaluator;
+  private final Map<String, Integer> slots;
+  private final Map<JsonLogicNode, Integer> sharedNodes;
+  private final Map<Integer, CompiledNode> compiledSharedNodes = new HashMap<>();
+
+  ClosureCompiler(RuleMakerJsonLogic jsonLogic) {
+    this(jsonLogic, Map.of());
+  }
+
+  ClosureCompiler(RuleMakerJsonLogic jsonLogic, Map<String, Integer> slots) {
+    this(jsonLogic, slots, Map.of());
+  }
+
+  /**
+   * Creates a compiler for frames.
+   *
+   * @param jsonLogic   The operations to bind.
+   * @param slots       The slot indexes of the variables.
+   * @param sharedNodes The index of the result in the frame for each shared subexpression, see {@link #findSharedNodes(Collection)}.
+   */
+  ClosureCompiler(RuleMakerJsonLogic jsonLogic, Map<String, Integer> slots, Map<JsonLogicNode, Integer> sharedNodes) {
+    this.jsonLogic = jsonLogic;
+    this.evaluator = jsonLogic.getEvaluator();
+    this.slots = slots;
+    this.sharedNodes = sharedNodes;
+  }
+
+  /**
+   * Finds the operations which occur more than once in the syntax trees. Operations are equal if they have the same operator and equal
+   * arguments.
+   *
+   * @param roots The syntax trees.
+   * @return The shared operations by identity, equal operations have the same index.
+   */
+  static Map<JsonLogicNode, Integer> findSharedNodes(Collection<JsonLogicNode> roots) {
+    Map<JsonLogicNode, String> keys = new IdentityHashMap<>();
+    Map<String, Integer> occurrences = new HashMap<>();
+    for (JsonLogicNode root : roots) {
+      keyOf(root, keys, occurrences);
+    }
+
+    Map<String, Integer> indexes = new HashMap<>();
+    Map<JsonLogicNode, Integer> sharedNodes = new IdentityHashMap<>();
+    keys.forEach((node, key) -> {
+      if (occurrences.getOrDefault(key, 0) > 1) {
+        sharedNodes.put(node, indexes.computeIfAbsent(key, k -> indexes.size()));
+      }
+    });
+    return sharedNodes;
+  }
+
+  private static String keyOf(JsonLogicNode node, Map<JsonLogicNode, String> keys, Map<String, Integer> occurrences) {
+    String key = keys.get(node);
+    if (key != null) {
+      return key;
+    }
+    switch (node.getType()) {
+      case PRIMITIVE:
+        return RuleMaker.gson.toJson(((JsonLogicPrimitive<?>) node).getValue());
+
+      case VARIABLE:
+        JsonLogicVariable variable = (JsonLogicVariable) node;
+        return "{\"var\":[" + keyOf(variable.getKey(), keys, occurrences) + ","
+          + keyOf(variable.getDefaultValue(), keys, occurrences) + "]}";
+
+      case ARRAY:
+        StringBuilder elements = new StringBuilder("[");
+        for (JsonLogicNode element : (JsonLogicArray) node) {
+          elements.append(elements.length() > 1 ? "," : "").append(keyOf(element, keys, occurrences));
+        }
+        return elements.append(']').toString();
+
+      default:
+        JsonLogicOperation operation = (JsonLogicOperation) node;
+        key = "{" + RuleMaker.gson.toJson(operation.getOperator()) + ":" + keyOf(operation.getArguments(), keys, occurrences) + "}";
+        keys.put(node, key);
+        occurrences.merge(key, 1, Integer::sum);
+        return key;
+    }
+  }
+
+  CompiledNode compile(JsonLogicNode node) {
+    Integer sharedNode = sharedNodes.get(node);
+    return sharedNode != null ? compileShared(sharedNode, node) : compileNode(node);
+  }
+
+  private CompiledNode compileShared(int index, JsonLogicNode node) {
+    CompiledNode compiled = compiledSharedNodes.get(index);
+    if (compiled == null) {
+      CompiledNode body = compileNode(node);
+      compiled = data -> {
+        if (!(data instanceof Frame)) {
+          return body.evaluate(data);
+        }
+        Frame frame = (Frame) data;
+        if (frame.isShared(index)) {
+          return frame.getShared(index);
+        }
+        Object value = body.evaluate(frame);
+        frame.setShared(index, value);
+        return value;
+      };
+      compiledSharedNodes.put(index, compiled);
+    }
+    return compiled;
+  }
+
+  private CompiledNode compileNode(JsonLogicNode node) {
+    switch (node.getType()) {
+      case PRIMITIVE:
+        Object value = evaluator.evaluate((JsonLogicPrimitive<?>) node);
+        return data -> value;
+
+      case VARIABLE:
+        return compileVariable((JsonLogicVariable) node);
+
+      case ARRAY:
+        return compileArray((JsonLogicArray) node);
+
+      default:
+        return compileOperation((JsonLogicOperation) node);
+    }
+  }
+
+  private CompiledNode[] compileAll(JsonLogicArray nodes) {
+    CompiledNode[] compiled = new CompiledNode[nodes.size()];
+    for (int i = 0; i < compiled.length; i++) {
+      compiled[i] = compile(nodes.get(i));
+    }
+    return compiled;
+  }
+
+  private CompiledNode compileArray(JsonLogicArray array) {
+    CompiledNode[] elements = compileAll(array);
+    return data -> evaluateAll(elements, data);
+  }
+
+  private static List<Object> evaluateAll(CompiledNode[] nodes, Object data) throws JsonLogicEvaluationException {
+    List<Object> values = new ArrayList<>(nodes.length);
+    for (CompiledNode node : nodes) {
+      values.add(node.evaluate(data));
+    }
+    return values;
+  }
+
+  private static Object dataOf(Object data) {
+    return data instanceof Frame ? ((Frame) data).asMap() : data;
+  }
+
+  private CompiledNode compileVariable(JsonLogicVariable variable) {
+    if (variable.getKey().getType() != JsonLogicNodeType.PRIMITIVE || variable.getDefaultValue().getType() != JsonLogicNodeType.PRIMITIVE) {
+      return data -> evaluator.evaluate(variable, dataOf(data));
+    }
+
+    Object defaultValue = evaluator.evaluate((JsonLogicPrimitive<?>) variable.getDefaultValue());
+    Object key = evaluator.evaluate((JsonLogicPrimitive<?>) variable.getKey());
+
+    if (key == null) {
+      return data -> data == null ? defaultValue : JsonLogicEvaluator.transform(dataOf(data));
+    }
+    if (key instanceof Number) {
+      int index = ((Number) key).intValue();
+      return data -> {
+        if (data != null && ArrayLike.isEligible(data)) {
+          ArrayLike list = new ArrayLike(data);
+          if (index >= 0 && index < list.size()) {
+            return list.get(index);
+          }
+        }
+        return defaultValue;
+      };
+    }
+    if (!(key instanceof String)) {
+      return data -> evaluator.evaluate(variable, dataOf(data));
+    }
+    if (((String) key).isEmpty()) {
+      return data -> data == null ? defaultValue : dataOf(data);
+    }
+
+    VariablePath path = VariablePath.of((String) key);
+    Integer slot = slots.get(key);
+    if (slot != null) {
+      int index = slot;
+      return data -> {
+        Object result;
+        if (data instanceof Frame) {
+          // An unset slot of an optional variable may still be part of the value of a slot above it
+          Frame frame = (Frame) data;
+          result = frame.isSet(index) ? frame.read(index) : path.lookup(frame.asMap());
+        } else {
+          result = path.lookup(data);
+        }
+        return result == null ? defaultValue : result;
+      };
+    }
+    return data -> {
+      Object result = path.lookup(dataOf(data));
+      return result == null ? defaultValue : result;
+    };
+  }
+
+  private CompiledNode compileOperation(JsonLogicOperation operation) {
+    JsonLogicExpression expression = jsonLogic.getExpression(operation.getOperator());
+    JsonLogicArray arguments = operation.getArguments();
+
+    if (expression == null) {
+      return data -> {
+        throw new JsonLogicEvaluationException("Undefined operation '" + operation.getOperator() + "'");
+      };
+    }
+    if (expression == LogicExpression.AND || expression == LogicExpression.OR) {
+      return compileLogic(expression == LogicExpression.AND, compileAll(arguments));
+    }
+    if (expression == IfExpression.IF || expression == IfExpression.TERNARY) {
+      return compileIf(compileAll(arguments));
+    }
+    if (expression instanceof CustomNumericComparisonExpression
+      && ((CustomNumericComparisonExpression) expression).getNumberOfArguments() == arguments.size()) {
+      return compileComparison((CustomNumericComparisonExpression) expression, arguments);
+    }
+    if (expression instanceof PreEvaluatedArgumentsExpression) {
+      return compilePreEvaluated((PreEvaluatedArgumentsExpression) expression, compileAll(arguments));
+    }
+    return data -> expression.evaluate(evaluator, arguments, dataOf(data));
+  }
+
+  private static CompiledNode compileLogic(boolean isAnd, CompiledNode[] arguments) {
+    if (arguments.length < 1) {
+      return data -> {
+        throw new JsonLogicEvaluationException((isAnd ? "and" : "or") + " operator expects at least 1 argument");
+      };
+    }
+    return data -> {
+      Object result = null;
+      for (CompiledNode argument : arguments) {
+        result = argument.evaluate(data);
+        if (JsonLogic.truthy(result) != isAnd) {
+          return result;
+        }
+      }
+      return result;
+    };
+  }
+
+  private static CompiledNode compileIf(CompiledNode[] arguments) {
+    if (arguments.length < 1) {
+      return data -> null;
+    }
+    if (arguments.length == 1) {
+      return arguments[0];
+    }
+    if (arguments.length == 2) {
+      return data -> JsonLogic.truthy(arguments[0].evaluate(data)) ? arguments[1].evaluate(data) : null;
+    }
+    return data -> {
+      for (int i = 0; i < arguments.length - 1; i += 2) {
+        if (JsonLogic.truthy(arguments[i].evaluate(data))) {
+          return arguments[i + 1].evaluate(data);
+        }
+      }
+      return (arguments.length & 1) == 0 ? null : arguments[arguments.length - 1].evaluate(data);
+    };
+  }
+
+  private CompiledNode compileComparison(CustomNumericComparisonExpression comparison, JsonLogicArray arguments) {
+    CompiledNode[] operands = compileAll(arguments);
+    return data -> {
+      Object[] values = new Object[operands.length];
+      for (int i = 0; i < operands.length; i++) {
+        values[i] = operands[i].evaluate(data);
+      }
+      return comparison.compareArguments(Arrays.asList(values));
+    };
+  }
+
+  private static CompiledNode compilePreEvaluated(PreEvaluatedArgumentsExpression expression, CompiledNode[] arguments) {
+    return data -> {
+      List<Object> values = evaluateAll(arguments, data);
+      if (values.size() == 1 && ArrayLike.isEligible(values.get(0))) {
+        values = new ArrayLike(values.get(0));
+      }
+      return expression.evaluate(values, dataOf(data));
+    };
+  }
+}
@@ -0,0 +1,12 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+
+/**
+ * Executable form of a JsonLogic syntax tree, produced once per rule by a {@link RuleEngine}.
+ */
+@FunctionalInterface
+interface CompiledNode {
+
+  Object evaluate(Object data) throws JsonLogicEvaluationException;
+}
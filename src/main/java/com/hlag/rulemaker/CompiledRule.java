@@ -0,0 +1,277 @@
+package com.hlag.rulemaker;
+
+import com.google.gson.JsonObject;
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A rule that has been parsed once and can be evaluated many times. It holds the rule in the executable form of its {@link RuleEngine},
+ * bound to the operations of its {@link RuleMakerJsonLogic}, and the variables the rule requires. An evaluation neither serializes nor
+ * parses the expression again.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public class CompiledRule {
+
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1_024;
+
+  @Getter(AccessLevel.PACKAGE)
+  private final JsonLogicNode node;
+
+  @Getter(AccessLevel.PACKAGE)
+  private final CompiledNode executable;
+
+  /**
+   * The variables which have to be present in the data to evaluate the rule.
+   */
+  @Getter
+  private final Set<String> variables;
+
+  private final VariablePath[] variablePaths;
+
+  @Getter(AccessLevel.PACKAGE)
+  private final DataReferences references;
+
+  private final SlotLayout slotLayout;
+
+  private final RuleMakerJsonLogic jsonLogic;
+
+  private volatile CompiledNode frameExecutable;
+
+  CompiledRule(RuleMakerJsonLogic jsonLogic, JsonLogicNode node, Set<String> variables) {
+    this.jsonLogic = jsonLogic;
+    this.node = node;
+    this.executable = jsonLogic.getEngine().compile(node, jsonLogic);
+    this.variables = Set.copyOf(variables);
+    this.variablePaths = this.variables.stream().map(VariablePath::of).toArray(VariablePath[]::new);
+    this.references = DataReferences.of(jsonLogic, node);
+    this.slotLayout = new SlotLayout(this.variables, references.getPaths());
+  }
+
+  /**
+   * Returns the variables in the order of their slots in a {@link Frame}, sorted by name. Besides the required variables these are the
+   * ones with a default value and the names checked by {@code missing}, whose slots may be left unset. A blank variable references the
+   * whole frame and has no slot.
+   *
+   * @return The variables by slot index.
+   */
+  public List<String> getSlots() {
+    return slotLayout.getSlots();
+  }
+
+  /**
+   * Returns the slot of a variable in a {@link Frame} of this rule.
+   *
+   * @param variable The variable.
+   * @return The slot index.
+   * @throws IllegalArgumentException if the rule has no slot for the variable.
+   */
+  public int slotOf(@NonNull String variable) {
+    return slotLayout.slotOf(variable);
+  }
+
+  /**
+   * Creates an empty frame for the data of an evaluation of this rule.
+   *
+   * @return The frame with all slots unset.
+   */
+  public Frame newFrame() {
+    return new Frame(this, slotLayout, 0);
+  }
+
+  /**
+   * Evaluates the rule with the given data.
+   *
+   * @param data The data to evaluate the rule with.
+   * @return The result of the evaluation.
+   */
+  public Object evaluate(Map<String, Object> data) {
+    Set<String> missingVariables = findMissingVariables(data);
+    if (!missingVariables.isEmpty()) {
+      throw new RuleMakerMissingVariablesException(missingVariables);
+    }
+
+    try {
+      return executable.evaluate(data);
+    } catch (JsonLogicEvaluationException e) {
+      throw new RuleMakerEvaluationException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Evaluates the rule with the data of a frame. The variables are read from their slots without looking up their paths. Frames are
+   * always evaluated by closures compiled for the slots of this rule, whatever its {@link RuleEngine}.
+   *
+   * @param frame The frame of this rule with the slots of all required variables set.
+   * @return The result of the evaluation.
+   */
+  public Object evaluate(@NonNull Frame frame) {
+    if (frame.getOwner() != this) {
+      throw new IllegalArgumentException("The frame belongs to another rule");
+    }
+    Set<String> unsetSlots = frame.findUnsetSlots();
+    if (!unsetSlots.isEmpty()) {
+      throw new RuleMakerMissingVariablesException(unsetSlots);
+    }
+
+    try {
+      return getFrameExecutable().evaluate(frame);
+    } catch (JsonLogicEvaluationException e) {
+      throw new RuleMakerEvaluationException(e.getMessage(), e);
+    }
+  }
+
+  private CompiledNode getFrameExecutable() {
+    CompiledNode compiled = frameExecutable;
+    if (compiled == null) {
+      compiled = new ClosureCompiler(jsonLogic, slotLayout.getIndexes()).compile(node);
+      frameExecutable = compiled;
+    }
+    return compiled;
+  }
+
+  /**
+   * Evaluates the rule with the given JSON data. Only the members referenced by the rule are read and converted, see
+   * {@link JsonObjectMap}.
+   *
+   * @param data The JSON data to evaluate the rule with.
+   * @return The result of the evaluation.
+   */
+  public Object evaluateJson(@NonNull JsonObject data) {
+    return evaluate(new JsonObjectMap(data));
+  }
+
+  /**
+   * Evaluates the rule with a plain Java object or record as data. Its record components, getters and public fields are the variables,
+   * they are read through method handles which are resolved once per class. A property is present if the class has it, even if its value
+   * is null.
+   *
+   * @param data The object to evaluate the rule with, or a map whose values may be such objects.
+   * @return The result of the evaluation.
+   */
+  public Object evaluateObject(@NonNull Object data) {
+    return evaluate(ObjectData.of(data));
+  }
+
+  /**
+   * Evaluates the rule for every data record of the batch. A record which cannot be evaluated does not abort the batch, its exception is
+   * reported in the result instead.
+   *
+   * @param records The data records to evaluate the rule with.
+   * @return The results of the records, in the order of the batch.
+   */
+  public BatchResult evaluateBatch(@NonNull List<? extends Map<String, Object>> records) {
+    List<? extends Map<String, Object>> indexedRecords = toRandomAccess(records);
+    Object[] values = new Object[indexedRecords.size()];
+    RuntimeException[] errors = new RuntimeException[indexedRecords.size()];
+    evaluateRange(indexedRecords, 0, indexedRecords.size(), values, errors);
+    return new BatchResult(values, errors);
+  }
+
+  /**
+   * Evaluates the rule for every data record of the batch in parallel, with slices of at most {@value #DEFAULT_SEQUENTIAL_THRESHOLD}
+   * records, see {@link #evaluateBatch(List, ForkJoinPool, int)}.
+   *
+   * @param records The data records to evaluate the rule with.
+   * @param pool    The pool which evaluates the slices of the batch.
+   * @return The results of the records, in the order of the batch.
+   */
+  public BatchResult evaluateBatch(@NonNull List<? extends Map<String, Object>> records, @NonNull ForkJoinPool pool) {
+    return evaluateBatch(records, pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Evaluates the rule for every data record of the batch in parallel. The batch is split in halves until a slice has at most
+   * {@code sequentialThreshold} records, idle threads of the pool steal the slices of busy ones. A batch which is not larger than the
+   * threshold is evaluated sequentially by the calling thread.
+   *
+   * <p>The records must not be modified while the batch is evaluated. Custom operations of the {@link RuleMakerJsonLogic} of the rule
+   * have to be thread-safe, all built-in operations are.
+   *
+   * @param records             The data records to evaluate the rule with.
+   * @param pool                The pool which evaluates the slices of the batch.
+   * @param sequentialThreshold The maximum number of records which are evaluated sequentially.
+   * @return The results of the records, in the order of the batch.
+   */
+  public BatchResult evaluateBatch(@NonNull List<? extends Map<String, Object>> records, @NonNull ForkJoinPool pool,
+    int sequentialThreshold) {
+    if (sequentialThreshold < 1) {
+      throw new IllegalArgumentException("Sequential threshold must be positive, was " + sequentialThreshold);
+    }
+    List<? extends Map<String, Object>> indexedRecords = toRandomAccess(records);
+    if (indexedRecords.size() <= sequentialThreshold) {
+      return evaluateBatch(indexedRecords);
+    }
+
+    Object[] values = new Object[indexedRecords.size()];
+    RuntimeException[] errors = new RuntimeException[indexedRecords.size()];
+    pool.invoke(new BatchTask(indexedRecords, 0, indexedRecords.size(), sequentialThreshold, values, errors));
+    return new BatchResult(values, errors);
+  }
+
+  private static List<? extends Map<String, Object>> toRandomAccess(List<? extends Map<String, Object>> records) {
+    return records instanceof RandomAccess ? records : new ArrayList<>(records);
+  }
+
+  private void evaluateRange(List<? extends Map<String, Object>> records, int from, int to, Object[] values, RuntimeException[] errors) {
+    for (int i = from; i < to; i++) {
+      try {
+        values[i] = evaluate(records.get(i));
+      } catch (RuntimeException e) {
+        errors[i] = e;
+      }
+    }
+  }
+
+  /**
+   * Evaluates a slice of a batch. Each slice writes only its own indexes of the result arrays, the join of the tasks publishes them.
+   */
+  @RequiredArgsConstructor
+  private final class BatchTask extends RecursiveAction {
+
+    private final List<? extends Map<String, Object>> records;
+    private final int from;
+    private final int to;
+    private final int sequentialThreshold;
+    private final Object[] values;
+    private final RuntimeException[] errors;
+
+    @Override
+    protected void compute() {
+      if (to - from <= sequentialThreshold) {
+        evaluateRange(records, from, to, values, errors);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new BatchTask(records, from, middle, sequentialThreshold, values, errors),
+        new BatchTask(records, middle, to, sequentialThreshold, values, errors));
+    }
+  }
+
+  private Set<String> findMissingVariables(Map<String, Object> data) {
+    Set<String> missingVariables = Set.of();
+    for (VariablePath variablePath : variablePaths) {
+      if (!variablePath.isPresent(data)) {
+        if (missingVariables.isEmpty()) {
+          missingVariables = new HashSet<>();
+        }
+        missingVariables.add(variablePath.getPath());
+      }
+    }
+    return missingVariables;
+  }
+}
@@ -0,0 +1,140 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNodeType;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicPrimitive;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicVariable;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.AllExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ArrayHasExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.FilterExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MapExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MissingExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ReduceExpression;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Finds all data a JsonLogic syntax tree reads by name: the paths of its variables, also the ones with a default value which do not have
+ * to be present, and the names checked by the {@code missing} and {@code missing_some} operations. A blank path references the whole data.
+ *
+ * <p>Names which are only known when the rule is evaluated, like a computed variable key, cannot be found. The rule may then read any part
+ * of the data, see {@link #isComputed()}.
+ */
+final class DataReferences {
+
+  private final RuleMakerJsonLogic jsonLogic;
+  private final Set<String> paths = new HashSet<>();
+  private boolean computed;
+
+  private DataReferences(RuleMakerJsonLogic jsonLogic) {
+    this.jsonLogic = jsonLogic;
+  }
+
+  /**
+   * Finds the data referenced by a syntax tree.
+   *
+   * @param jsonLogic The operations of the syntax tree.
+   * @param node      The syntax tree.
+   * @return The references of the syntax tree.
+   */
+  static DataReferences of(RuleMakerJsonLogic jsonLogic, JsonLogicNode node) {
+    DataReferences references = new DataReferences(jsonLogic);
+    references.find(node);
+    return references;
+  }
+
+  /**
+   * Returns the paths referenced by name.
+   *
+   * @return The paths, a blank path references the whole data.
+   */
+  Set<String> getPaths() {
+    return Set.copyOf(paths);
+  }
+
+  /**
+   * Checks if the syntax tree references data by a name which is computed when it is evaluated.
+   *
+   * @return true if the referenced data is only known when the rule is evaluated; false if it is given by {@link #getPaths()}.
+   */
+  boolean isComputed() {
+    return computed;
+  }
+
+  private void find(JsonLogicNode node) {
+    switch (node.getType()) {
+      case VARIABLE:
+        findVariable((JsonLogicVariable) node);
+        break;
+
+      case ARRAY:
+        ((JsonLogicArray) node).forEach(this::find);
+        break;
+
+      case OPERATION:
+        findOperation((JsonLogicOperation) node);
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  private void findVariable(JsonLogicVariable variable) {
+    // The default value is evaluated without data, so it cannot reference any
+    JsonLogicNode key = variable.getKey();
+    if (key.getType() != JsonLogicNodeType.PRIMITIVE) {
+      computed = true;
+      find(key);
+      return;
+    }
+    Object name = ((JsonLogicPrimitive<?>) key).getValue();
+    if (name == null || name instanceof String) {
+      paths.add(name == null ? "" : (String) name);
+    }
+    // A number indexes array data, which the root of the data never is, any other key fails the evaluation
+  }
+
+  private void findOperation(JsonLogicOperation operation) {
+    JsonLogicExpression expression = jsonLogic.getExpression(operation.getOperator());
+    JsonLogicArray arguments = operation.getArguments();
+    if (isScoped(expression)) {
+      // Only the array and the initial value of reduce are read from the data, the other arguments are evaluated for its elements
+      for (int i = 0; i < arguments.size(); i += 2) {
+        find(arguments.get(i));
+      }
+      return;
+    }
+
+    arguments.forEach(this::find);
+    if (expression == MissingExpression.ALL) {
+      findNames(arguments.size() == 1 ? arguments.get(0) : arguments);
+    } else if (expression == MissingExpression.SOME && arguments.size() > 1) {
+      findNames(arguments.get(1));
+    }
+  }
+
+  private static boolean isScoped(JsonLogicExpression expression) {
+    return expression == MapExpression.INSTANCE || expression == FilterExpression.INSTANCE || expression == ReduceExpression.INSTANCE
+      || expression == AllExpression.INSTANCE || expression == ArrayHasExpression.SOME || expression == ArrayHasExpression.NONE;
+  }
+
+  private void findNames(JsonLogicNode names) {
+    if (names.getType() == JsonLogicNodeType.ARRAY) {
+      ((JsonLogicArray) names).forEach(this::findName);
+    } else {
+      findName(names);
+    }
+  }
+
+  private void findName(JsonLogicNode name) {
+    if (name.getType() != JsonLogicNodeType.PRIMITIVE) {
+      computed = true;
+    } else if (((JsonLogicPrimitive<?>) name).getValue() instanceof String) {
+      paths.add((String) ((JsonLogicPrimitive<?>) name).getValue());
+    }
+  }
+}
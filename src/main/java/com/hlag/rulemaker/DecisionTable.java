@@ -0,0 +1,274 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+
+/**
+ * An ordered table of rows, each a condition and the result of the table if the condition is true, like the rows of a price table. The
+ * {@link HitPolicy} decides which of the matching rows make up the result. Rows are evaluated in order, and the evaluation stops as soon
+ * as the result is decided.
+ *
+ * <p>Like a {@link RuleSet}, all conditions and results are compiled together into one {@link Frame} layout, and the conditions are
+ * indexed by their equality and range guards. If all variables are set, only the rows whose guard matches the input are evaluated.
+ * Otherwise every row is evaluated in order, and the first row whose variables are missing fails the evaluation with a
+ * {@link RuleMakerMissingVariablesException}, just like evaluating the conditions one by one.
+ *
+ * <p>The rows are evaluated by closures, whatever the engine of the {@link RuleMakerJsonLogic}. A decision table is immutable and can be
+ * shared between threads.
+ */
+public class DecisionTable {
+
+  /**
+   * Which of the matching rows make up the result of a decision table.
+   */
+  public enum HitPolicy {
+    /**
+     * The first matching row in table order.
+     */
+    FIRST,
+    /**
+     * All matching rows in table order.
+     */
+    ALL,
+    /**
+     * The matching row with the highest priority, the first one in table order if several have the same priority.
+     */
+    PRIORITY
+  }
+
+  @Getter
+  private final HitPolicy hitPolicy;
+  private final CompiledNode[] conditions;
+  private final CompiledNode[] results;
+  private final int[][] conditionSlots;
+  private final int[][] resultSlots;
+  private final int[] ranks;
+  private final int[] rowsByRank;
+  private final SlotLayout slotLayout;
+  private final int sharedNodes;
+  private final RuleIndex ruleIndex;
+
+  /**
+   * Compiles the rows of the table.
+   *
+   * @param jsonLogic The operations of the rows, the shared operations of {@link RuleMaker} by default.
+   * @param hitPolicy The hit policy, {@link HitPolicy#FIRST} by default.
+   * @param rows      The rows in table order.
+   */
+  @Builder
+  private DecisionTable(RuleMakerJsonLogic jsonLogic, HitPolicy hitPolicy, @Singular List<Row> rows) {
+    RuleMakerJsonLogic operations = jsonLogic != null ? jsonLogic : RuleMaker.RULE_MAKER_JSON_LOGIC;
+    this.hitPolicy = hitPolicy != null ? hitPolicy : HitPolicy.FIRST;
+
+    List<CompiledRule> compiledConditions = new ArrayList<>();
+    List<CompiledRule> compiledResults = new ArrayList<>();
+    Set<String> variables = new HashSet<>();
+    Set<String> references = new HashSet<>();
+    List<JsonLogicNode> conditionNodes = new ArrayList<>();
+    List<JsonLogicNode> nodes = new ArrayList<>();
+    for (Row row : rows) {
+      CompiledRule condition = operations.compile(row.getCondition());
+      CompiledRule result = operations.compile(row.getResult());
+      compiledConditions.add(condition);
+      compiledResults.add(result);
+      variables.addAll(condition.getVariables());
+      variables.addAll(result.getVariables());
+      references.addAll(condition.getReferences().getPaths());
+      references.addAll(result.getReferences().getPaths());
+      conditionNodes.add(condition.getNode());
+      nodes.add(condition.getNode());
+      nodes.add(result.getNode());
+    }
+    this.slotLayout = new SlotLayout(variables, references);
+
+    Map<JsonLogicNode, Integer> shared = ClosureCompiler.findSharedNodes(nodes);
+    this.sharedNodes = (int) shared.values().stream().distinct().count();
+    ClosureCompiler compiler = new ClosureCompiler(operations, slotLayout.getIndexes(), shared);
+    this.conditions = compiledConditions.stream().map(rule -> compiler.compile(rule.getNode())).toArray(CompiledNode[]::new);
+    this.results = compiledResults.stream().map(rule -> compiler.compile(rule.getNode())).toArray(CompiledNode[]::new);
+    this.conditionSlots = compiledConditions.stream().map(this::slotsOf).toArray(int[][]::new);
+    this.resultSlots = compiledResults.stream().map(this::slotsOf).toArray(int[][]::new);
+
+    // The rows in the order they are evaluated, by descending priority for the priority hit policy
+    Comparator<Integer> order = this.hitPolicy == HitPolicy.PRIORITY
+      ? Comparator.comparingInt((Integer row) -> rows.get(row).getPriority()).reversed()
+      : Comparator.naturalOrder();
+    this.rowsByRank = IntStream.range(0, rows.size()).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    this.ranks = new int[rows.size()];
+    for (int rank = 0; rank < rowsByRank.length; rank++) {
+      ranks[rowsByRank[rank]] = rank;
+    }
+    this.ruleIndex = new RuleIndex(conditionNodes, slotLayout, operations);
+  }
+
+  /**
+   * Returns the number of rows whose condition is indexed by an equality or a range guard.
+   *
+   * @return The number of indexed rows.
+   */
+  public int getIndexedRowCount() {
+    return ruleIndex.getIndexedRuleCount();
+  }
+
+  /**
+   * Returns the variables of all rows in the order of their slots in a {@link Frame} of this table, see
+   * {@link CompiledRule#getSlots()}.
+   *
+   * @return The variables by slot index.
+   */
+  public List<String> getSlots() {
+    return slotLayout.getSlots();
+  }
+
+  /**
+   * Returns the slot of a variable in a {@link Frame} of this table.
+   *
+   * @param variable The variable.
+   * @return The slot index.
+   * @throws IllegalArgumentException if no row of the table uses the variable.
+   */
+  public int slotOf(@NonNull String variable) {
+    return slotLayout.slotOf(variable);
+  }
+
+  /**
+   * Creates an empty frame for the data of an evaluation of this table.
+   *
+   * @return The frame with all slots unset.
+   */
+  public Frame newFrame() {
+    return new Frame(this, slotLayout, sharedNodes);
+  }
+
+  /**
+   * Evaluates the table with the given data. Every variable is looked up in the data once.
+   *
+   * @param data The data to evaluate the table with.
+   * @return The matching rows and their results.
+   * @throws RuleMakerMissingVariablesException if a variable of an evaluated row is missing.
+   * @throws RuleMakerEvaluationException       if a row cannot be evaluated.
+   */
+  public DecisionTableResult evaluate(@NonNull Map<String, Object> data) {
+    return evaluate(newFrame().load(data));
+  }
+
+  /**
+   * Evaluates the table with the data of a frame.
+   *
+   * @param frame The frame of this table.
+   * @return The matching rows and their results.
+   * @throws RuleMakerMissingVariablesException if a slot of an evaluated row is not set.
+   * @throws RuleMakerEvaluationException       if a row cannot be evaluated.
+   */
+  public DecisionTableResult evaluate(@NonNull Frame frame) {
+    if (frame.getOwner() != this) {
+      throw new IllegalArgumentException("The frame belongs to another decision table");
+    }
+    frame.resetShared();
+    boolean complete = frame.isComplete();
+    List<Integer> matchedRows = new ArrayList<>();
+    List<Object> matchedResults = new ArrayList<>();
+    for (int row : complete ? findCandidates(frame) : rowsByRank) {
+      if (!complete) {
+        checkSlots(conditionSlots[row], frame);
+      }
+      if (JsonLogic.truthy(evaluate(conditions[row], frame))) {
+        if (!complete) {
+          checkSlots(resultSlots[row], frame);
+        }
+        matchedRows.add(row);
+        matchedResults.add(evaluate(results[row], frame));
+        if (hitPolicy != HitPolicy.ALL) {
+          break;
+        }
+      }
+    }
+    return new DecisionTableResult(matchedRows, matchedResults);
+  }
+
+  /**
+   * Finds the rows whose condition may be true, in the order they are evaluated.
+   */
+  private int[] findCandidates(Frame frame) {
+    int[] candidates = ruleIndex.findCandidates(frame);
+    for (int i = 0; i < candidates.length; i++) {
+      candidates[i] = ranks[candidates[i]];
+    }
+    Arrays.sort(candidates);
+    for (int i = 0; i < candidates.length; i++) {
+      candidates[i] = rowsByRank[candidates[i]];
+    }
+    return candidates;
+  }
+
+  private int[] slotsOf(CompiledRule rule) {
+    return slotLayout.slotsOf(rule.getVariables());
+  }
+
+  private static void checkSlots(int[] slots, Frame frame) {
+    Set<String> missingVariables = frame.findUnsetSlots(slots);
+    if (!missingVariables.isEmpty()) {
+      throw new RuleMakerMissingVariablesException(missingVariables);
+    }
+  }
+
+  private static Object evaluate(CompiledNode node, Frame frame) {
+    try {
+      return node.evaluate(frame);
+    } catch (JsonLogicEvaluationException e) {
+      throw new RuleMakerEvaluationException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * A row of a decision table, its condition and the result of the table if the condition is true.
+   */
+  @Getter
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class Row {
+
+    private final RuleMaker condition;
+    private final RuleMaker result;
+    private final int priority;
+
+    /**
+     * Creates a row without priority.
+     *
+     * @param condition The condition of the row.
+     * @param result    The result of the table if the condition is true.
+     * @return The row.
+     */
+    public static Row of(@NonNull RuleMaker condition, @NonNull RuleMaker result) {
+      return new Row(condition, result, 0);
+    }
+
+    /**
+     * Creates a row for the {@link HitPolicy#PRIORITY} hit policy.
+     *
+     * @param condition The condition of the row.
+     * @param result    The result of the table if the condition is true.
+     * @param priority  The priority of the row, the matching row with the highest priority is the result of the table.
+     * @return The row.
+     */
+    public static Row of(@NonNull RuleMaker condition, @NonNull RuleMaker result, int priority) {
+      return new Row(condition, result, priority);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.hlag.rulemaker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The matching rows of a {@link DecisionTable} evaluated with one input, and their results. For the hit policies
+ * {@link DecisionTable.HitPolicy#FIRST} and {@link DecisionTable.HitPolicy#PRIORITY} at most one row matches.
+ */
+public class DecisionTableResult {
+
+  private final List<Integer> rows;
+  private final List<Object> results;
+
+  DecisionTableResult(List<Integer> rows, List<Object> results) {
+    this.rows = Collections.unmodifiableList(rows);
+    this.results = Collections.unmodifiableList(results);
+  }
+
+  /**
+   * Checks if any row matches.
+   *
+   * @return true if the condition of a row is true; false otherwise.
+   */
+  public boolean hasMatch() {
+    return !rows.isEmpty();
+  }
+
+  /**
+   * Returns the result of the table.
+   *
+   * @return The result of the first matching row, null if no row matches.
+   */
+  public Object getResult() {
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  /**
+   * Returns the indexes of the matching rows, in table order for {@link DecisionTable.HitPolicy#ALL}.
+   *
+   * @return The row indexes.
+   */
+  public List<Integer> getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the results of the matching rows, in the order of {@link #getRows()}.
+   *
+   * @return The results.
+   */
+  public List<Object> getResults() {
+    return results;
+  }
+}
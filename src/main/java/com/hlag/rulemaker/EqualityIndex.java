@@ -0,0 +1,130 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNodeType;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.EqualityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.StrictEqualityExpression;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index over the equality guards of the rules of a {@link RuleSet}, comparisons of a variable with a literal like
+ * {@code {"==":[{"var":"tradeLane"},"ASIA-EU"]}}.
+ *
+ * <p>The index only decides for values of the same type as the literal, where loose equality is plain equality. Rules are evaluated as
+ * usual if the value has another type, or if the variable is not set.
+ */
+final class EqualityIndex extends GuardIndex {
+
+  private final SlotIndex[] slotIndexes;
+
+  EqualityIndex(List<JsonLogicNode> rules, SlotLayout slotLayout, RuleMakerJsonLogic jsonLogic) {
+    super(rules.size());
+    Map<Integer, Map<Object, List<Integer>>> rulesBySlot = new LinkedHashMap<>();
+    for (int rule = 0; rule < rules.size(); rule++) {
+      Guard guard = findEquality(findGuard(rules.get(rule), jsonLogic), jsonLogic);
+      Integer slot = guard != null ? slotLayout.getIndexes().get(guard.variable) : null;
+      if (slot != null) {
+        rulesBySlot.computeIfAbsent(slot, s -> new HashMap<>()).computeIfAbsent(guard.literal, l -> new ArrayList<>()).add(rule);
+        markIndexed(rule);
+      }
+    }
+    this.slotIndexes = rulesBySlot.entrySet().stream()
+      .map(rulesOfSlot -> new SlotIndex(rulesOfSlot.getKey(), rulesOfSlot.getValue()))
+      .toArray(SlotIndex[]::new);
+  }
+
+  @Override
+  int appendCandidates(Frame frame, int[] candidates, int count) {
+    int appended = count;
+    for (SlotIndex slotIndex : slotIndexes) {
+      appended = slotIndex.appendCandidates(frame, candidates, appended);
+    }
+    return appended;
+  }
+
+  private static Guard findEquality(JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+    if (node == null || node.getType() != JsonLogicNodeType.OPERATION) {
+      return null;
+    }
+    JsonLogicOperation operation = (JsonLogicOperation) node;
+    JsonLogicExpression expression = jsonLogic.getExpression(operation.getOperator());
+    JsonLogicArray arguments = operation.getArguments();
+    if ((expression != EqualityExpression.INSTANCE && expression != StrictEqualityExpression.INSTANCE) || arguments.size() != 2) {
+      return null;
+    }
+    String variable = findVariable(arguments.get(0));
+    Object literal = findIndexableLiteral(arguments.get(1));
+    if (variable == null || literal == null) {
+      variable = findVariable(arguments.get(1));
+      literal = findIndexableLiteral(arguments.get(0));
+    }
+    // Strict equality compares numbers by their primitive values, where -0.0 equals 0.0 unlike with Double.equals
+    if (variable == null || literal == null || (expression == StrictEqualityExpression.INSTANCE && literal instanceof Double)) {
+      return null;
+    }
+    return new Guard(variable, literal);
+  }
+
+  private static Object findIndexableLiteral(JsonLogicNode node) {
+    Object value = findLiteral(node);
+    return value instanceof String || value instanceof Double || value instanceof Boolean ? value : null;
+  }
+
+  private static final class Guard {
+
+    private final String variable;
+    private final Object literal;
+
+    private Guard(String variable, Object literal) {
+      this.variable = variable;
+      this.literal = literal;
+    }
+  }
+
+  /**
+   * The guarded rules of one variable, by literal. Literals of different types never collide since Strings, Doubles and Booleans are never
+   * equal to each other.
+   */
+  private static final class SlotIndex {
+
+    private final int slot;
+    private final Map<Object, int[]> rulesByLiteral = new HashMap<>();
+    private final Map<Class<?>, int[]> rulesByType;
+    private final int[] rules;
+
+    private SlotIndex(int slot, Map<Object, List<Integer>> rulesByLiteral) {
+      this.slot = slot;
+      Map<Class<?>, List<Integer>> rulesByType = new HashMap<>();
+      List<Integer> rules = new ArrayList<>();
+      rulesByLiteral.forEach((literal, rulesOfLiteral) -> {
+        this.rulesByLiteral.put(literal, toArray(rulesOfLiteral));
+        rulesByType.computeIfAbsent(literal.getClass(), type -> new ArrayList<>()).addAll(rulesOfLiteral);
+        rules.addAll(rulesOfLiteral);
+      });
+      this.rulesByType = new HashMap<>();
+      rulesByType.forEach((type, rulesOfType) -> this.rulesByType.put(type, toArray(rulesOfType)));
+      this.rules = toArray(rules);
+    }
+
+    private int appendCandidates(Frame frame, int[] candidates, int count) {
+      Object value = frame.isSet(slot) ? frame.read(slot) : null;
+      if (!(value instanceof String || value instanceof Double || value instanceof Boolean)) {
+        return append(candidates, count, rules);
+      }
+      int appended = append(candidates, count, rulesByLiteral.getOrDefault(value, NO_RULES));
+      for (Map.Entry<Class<?>, int[]> rulesOfType : rulesByType.entrySet()) {
+        if (rulesOfType.getKey() != value.getClass()) {
+          appended = append(candidates, appended, rulesOfType.getValue());
+        }
+      }
+      return appended;
+    }
+  }
+}
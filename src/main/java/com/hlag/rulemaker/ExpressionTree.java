@@ -0,0 +1,142 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicBoolean;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNull;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNumber;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicParseException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicParser;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicString;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicVariable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Works on the in-memory expression tree of a {@link RuleMaker}, which consists of single key maps, lists and literal values. The tree is
+ * turned into a JsonLogic syntax tree the same way as its JSON text would be parsed, but without serializing it.
+ */
+final class ExpressionTree {
+
+  private ExpressionTree() {
+  }
+
+  /**
+   * Converts the expression tree into a JsonLogic syntax tree.
+   *
+   * @param expression The expression tree.
+   * @return The JsonLogic syntax tree.
+   * @throws JsonLogicParseException if the tree is not a valid JsonLogic expression.
+   */
+  static JsonLogicNode toNode(Object expression) throws JsonLogicParseException {
+    if (expression == null) {
+      return JsonLogicNull.NULL;
+    }
+    if (expression instanceof String) {
+      return new JsonLogicString((String) expression);
+    }
+    if (expression instanceof Number) {
+      return toNumber((Number) expression);
+    }
+    if (expression instanceof Boolean) {
+      return (Boolean) expression ? JsonLogicBoolean.TRUE : JsonLogicBoolean.FALSE;
+    }
+    if (expression instanceof Collection) {
+      List<JsonLogicNode> elements = new ArrayList<>(((Collection<?>) expression).size());
+      for (Object element : (Collection<?>) expression) {
+        elements.add(toNode(element));
+      }
+      return new JsonLogicArray(elements);
+    }
+    if (expression.getClass().isArray()) {
+      int length = Array.getLength(expression);
+      List<JsonLogicNode> elements = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+        elements.add(toNode(Array.get(expression, i)));
+      }
+      return new JsonLogicArray(elements);
+    }
+    if (expression instanceof Map) {
+      return toOperation((Map<?, ?>) expression);
+    }
+
+    // Any other literal is handled exactly like its JSON representation
+    return JsonLogicParser.parse(RuleMaker.gson.toJson(expression));
+  }
+
+  /**
+   * Converts a number the way Gson writes it: a float by its decimal representation, which is shorter than the one of its double value.
+   */
+  private static JsonLogicNode toNumber(Number number) {
+    if ((number instanceof Double || number instanceof Float) && !Double.isFinite(number.doubleValue())) {
+      throw new IllegalArgumentException(number + " is not a valid double value as per JSON specification");
+    }
+    return new JsonLogicNumber(number instanceof Float ? Double.parseDouble(number.toString()) : number);
+  }
+
+  private static JsonLogicNode toOperation(Map<?, ?> operation) throws JsonLogicParseException {
+    if (operation.size() != 1) {
+      throw new JsonLogicParseException("objects must have exactly 1 key defined, found " + operation.size());
+    }
+
+    Entry<?, ?> entry = operation.entrySet().iterator().next();
+    String key = String.valueOf(entry.getKey());
+    JsonLogicNode argumentNode = toNode(entry.getValue());
+    JsonLogicArray arguments = argumentNode instanceof JsonLogicArray
+      ? (JsonLogicArray) argumentNode
+      : new JsonLogicArray(Collections.singletonList(argumentNode));
+
+    if ("var".equals(key)) {
+      JsonLogicNode defaultValue = arguments.size() > 1 ? arguments.get(1) : JsonLogicNull.NULL;
+      return new JsonLogicVariable(arguments.isEmpty() ? JsonLogicNull.NULL : arguments.get(0), defaultValue);
+    }
+    return new JsonLogicOperation(key, arguments);
+  }
+
+  /**
+   * Finds the variables of the expression tree which have to be present in the data. The "accumulator" and "current" variables of the
+   * reduce operation are provided by the operation itself.
+   *
+   * @param expression The expression tree.
+   * @return A set of the required variables.
+   */
+  static Set<String> findRequiredVariables(Object expression) {
+    Set<String> variables = new HashSet<>();
+    findVarFields(expression, variables);
+    variables.remove("accumulator");
+    variables.remove("current");
+    return variables;
+  }
+
+  private static void findVarFields(Object expression, Set<String> fields) {
+    if (expression instanceof Map) {
+      for (Entry<?, ?> entry : ((Map<?, ?>) expression).entrySet()) {
+        if ("var".equals(entry.getKey()) && isPrimitive(entry.getValue())) {
+          fields.add(String.valueOf(entry.getValue()));
+        } else {
+          findVarFields(entry.getValue(), fields);
+        }
+      }
+    } else if (expression instanceof Collection) {
+      for (Object element : (Collection<?>) expression) {
+        findVarFields(element, fields);
+      }
+    } else if (expression != null && expression.getClass().isArray() && !expression.getClass().getComponentType().isPrimitive()) {
+      for (Object element : (Object[]) expression) {
+        findVarFields(element, fields);
+      }
+    }
+  }
+
+  private static boolean isPrimitive(Object value) {
+    return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character;
+  }
+}
@@ -0,0 +1,288 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.NonNull;
+
+/**
+ * The data of one evaluation of a {@link CompiledRule} or a {@link RuleSet}, held in slots instead of nested maps. Every variable has a
+ * slot, see {@link CompiledRule#getSlots()}, and the rules read their variables by slot index instead of looking up each key of their path.
+ *
+ * <p>The slots of all required variables have to be set before the frame is evaluated, a slot set to null is present with a null value.
+ * Variables with a default value and the names checked by {@code missing} have slots too, which may be left unset if the data does not
+ * have them. Numbers can be set without boxing them, like all numbers of the data they are read as doubles. A frame can be reused for the
+ * next record after {@link #clear()}.
+ *
+ * <p>Frames are mutable and must not be shared between threads.
+ */
+public final class Frame {
+
+  private static final Object NOT_EVALUATED = new Object();
+  private static final long MAX_EXACT_LONG = 1L << 53;
+
+  private final Object owner;
+  private final SlotLayout layout;
+  private final List<String> slots;
+  private final Object[] values;
+  private final double[] numbers;
+  private final boolean[] numeric;
+  private final boolean[] assigned;
+  private final Object[] shared;
+  private int requiredAssignedCount;
+  private Map<String, Object> nested;
+
+  /**
+   * Creates an empty frame.
+   *
+   * @param owner       The rule or rule set which evaluates the frame.
+   * @param layout      The slots of the variables.
+   * @param sharedNodes The number of subexpressions whose results are kept for the current record.
+   */
+  Frame(Object owner, SlotLayout layout, int sharedNodes) {
+    this.owner = owner;
+    this.layout = layout;
+    this.slots = layout.getSlots();
+    this.values = new Object[slots.size()];
+    this.numbers = new double[slots.size()];
+    this.numeric = new boolean[slots.size()];
+    this.assigned = new boolean[slots.size()];
+    this.shared = new Object[sharedNodes];
+    Arrays.fill(shared, NOT_EVALUATED);
+  }
+
+  /**
+   * Sets the value of a slot.
+   *
+   * @param slot  The slot index.
+   * @param value The value of the variable of the slot.
+   * @return This frame.
+   */
+  public Frame set(int slot, Object value) {
+    values[slot] = value;
+    numeric[slot] = false;
+    return assign(slot);
+  }
+
+  /**
+   * Sets the value of the slot of a variable.
+   *
+   * @param variable The variable, see {@link CompiledRule#slotOf(String)}.
+   * @param value    The value of the variable.
+   * @return This frame.
+   * @throws IllegalArgumentException if the frame has no slot for the variable.
+   */
+  public Frame set(@NonNull String variable, Object value) {
+    return set(layout.slotOf(variable), value);
+  }
+
+  /**
+   * Sets the numeric value of a slot without boxing it.
+   *
+   * @param slot  The slot index.
+   * @param value The value of the variable of the slot.
+   * @return This frame.
+   */
+  public Frame setDouble(int slot, double value) {
+    values[slot] = null;
+    numbers[slot] = value;
+    numeric[slot] = true;
+    return assign(slot);
+  }
+
+  /**
+   * Sets the numeric value of a slot without boxing it. Like all numbers of the data it is read as a double, which represents every long
+   * of at most 2^53 in magnitude exactly. Larger values like IDs or epoch nanos would silently lose precision, they are rejected and have
+   * to be set as strings with {@link #set(int, Object)}.
+   *
+   * @param slot  The slot index.
+   * @param value The value of the variable of the slot, at most 2^53 in magnitude.
+   * @return This frame.
+   * @throws IllegalArgumentException if the value is larger than 2^53 in magnitude.
+   */
+  public Frame setLong(int slot, long value) {
+    if (value < -MAX_EXACT_LONG || value > MAX_EXACT_LONG) {
+      throw new IllegalArgumentException("The long " + value + " of slot " + slot + " is not exactly representable as double");
+    }
+    return setDouble(slot, value);
+  }
+
+  /**
+   * Checks if a slot has been set.
+   *
+   * @param slot The slot index.
+   * @return true if the slot has been set since the frame was created or cleared; false otherwise.
+   */
+  public boolean isSet(int slot) {
+    return assigned[slot];
+  }
+
+  /**
+   * Unsets all slots, so the frame can be filled with the next record.
+   *
+   * @return This frame.
+   */
+  public Frame clear() {
+    Arrays.fill(values, null);
+    Arrays.fill(numeric, false);
+    Arrays.fill(assigned, false);
+    requiredAssignedCount = 0;
+    return changed();
+  }
+
+  Object getOwner() {
+    return owner;
+  }
+
+  /**
+   * Reads a slot the way a variable is read from map data, numbers are returned as doubles.
+   */
+  Object read(int slot) {
+    return numeric[slot] ? Double.valueOf(numbers[slot]) : JsonLogicEvaluator.transform(values[slot]);
+  }
+
+  /**
+   * Checks if the slots of all required variables are set.
+   */
+  boolean isComplete() {
+    return requiredAssignedCount == layout.getRequiredCount();
+  }
+
+  /**
+   * Sets every slot whose variable is present in the data, and keeps the data for operations which look up data by name.
+   */
+  Frame load(Map<String, Object> data) {
+    for (int slot = 0; slot < slots.size(); slot++) {
+      VariablePath path = layout.getPath(slot);
+      if (path.isPresent(data)) {
+        try {
+          set(slot, path.lookup(data));
+        } catch (JsonLogicEvaluationException e) {
+          throw new RuleMakerEvaluationException(e.getMessage(), e);
+        }
+      }
+    }
+    setSource(data);
+    return this;
+  }
+
+  /**
+   * Finds the variables of the given slots which are not set.
+   */
+  Set<String> findUnsetSlots(int[] slotIndexes) {
+    Set<String> unset = Set.of();
+    for (int slot : slotIndexes) {
+      if (!assigned[slot]) {
+        if (unset.isEmpty()) {
+          unset = new HashSet<>();
+        }
+        unset.add(slots.get(slot));
+      }
+    }
+    return unset;
+  }
+
+  /**
+   * Finds the required variables which are not set.
+   */
+  Set<String> findUnsetSlots() {
+    Set<String> unset = Set.of();
+    for (int i = 0; i < assigned.length; i++) {
+      if (!assigned[i] && layout.isRequired(i)) {
+        if (unset.isEmpty()) {
+          unset = new LinkedHashSet<>();
+        }
+        unset.add(slots.get(i));
+      }
+    }
+    return unset;
+  }
+
+  /**
+   * Sets the data the slots have been read from, operations which look up data by name get it instead of the slots as nested maps.
+   */
+  void setSource(Map<String, Object> source) {
+    nested = source;
+  }
+
+  /**
+   * Forgets the results of the shared subexpressions, which is needed before each evaluation since the slots may have changed.
+   */
+  void resetShared() {
+    Arrays.fill(shared, NOT_EVALUATED);
+  }
+
+  boolean isShared(int node) {
+    return shared[node] != NOT_EVALUATED;
+  }
+
+  Object getShared(int node) {
+    return shared[node];
+  }
+
+  void setShared(int node, Object value) {
+    shared[node] = value;
+  }
+
+  /**
+   * Returns the slots as nested maps, for operations which look up data by name instead of by slot. The maps are built once per record.
+   */
+  Map<String, Object> asMap() {
+    if (nested == null) {
+      nested = buildNestedMap();
+    }
+    return nested;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> buildNestedMap() {
+    Map<String, Object> root = new LinkedHashMap<>();
+    Set<Object> created = Collections.newSetFromMap(new IdentityHashMap<>());
+    created.add(root);
+    // Slots are sorted, so a path is added before the paths below it, which are then already part of its value
+    for (int i = 0; i < slots.size(); i++) {
+      if (!assigned[i]) {
+        continue;
+      }
+      String[] keys = slots.get(i).split("\\.");
+      Map<String, Object> parent = root;
+      for (int k = 0; k < keys.length - 1 && parent != null; k++) {
+        Object child = parent.get(keys[k]);
+        if (child == null && !parent.containsKey(keys[k])) {
+          child = new LinkedHashMap<String, Object>();
+          parent.put(keys[k], child);
+          created.add(child);
+        }
+        parent = created.contains(child) ? (Map<String, Object>) child : null;
+      }
+      if (parent != null && !parent.containsKey(keys[keys.length - 1])) {
+        parent.put(keys[keys.length - 1], numeric[i] ? Double.valueOf(numbers[i]) : values[i]);
+      }
+    }
+    return Collections.unmodifiableMap(root);
+  }
+
+  private Frame assign(int slot) {
+    if (!assigned[slot]) {
+      assigned[slot] = true;
+      if (layout.isRequired(slot)) {
+        requiredAssignedCount++;
+      }
+    }
+    return changed();
+  }
+
+  private Frame changed() {
+    nested = null;
+    return this;
+  }
+}
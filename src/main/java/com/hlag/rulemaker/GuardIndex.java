@@ -0,0 +1,89 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNodeType;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicPrimitive;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicVariable;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.LogicExpression;
+import java.util.List;
+
+/**
+ * Index over the guards of the rules of a {@link RuleSet}. A guard is a condition on a single variable which is either the whole rule or
+ * the first condition of its top-level {@code and}. If the guard is false, the rule evaluates to false without looking at anything else,
+ * so only the rules whose guard may be true for the value of the variable have to be evaluated.
+ */
+abstract class GuardIndex {
+
+  static final int[] NO_RULES = new int[0];
+
+  private final boolean[] indexed;
+  private int indexedRuleCount;
+
+  GuardIndex(int ruleCount) {
+    this.indexed = new boolean[ruleCount];
+  }
+
+  /**
+   * Appends the indexed rules which have to be evaluated for the data of the frame. Every other indexed rule evaluates to false, if its
+   * variables are set.
+   *
+   * @param frame      The frame with the data.
+   * @param candidates The array to append the rule indexes to.
+   * @param count      The number of rule indexes already in the array.
+   * @return The number of rule indexes in the array.
+   */
+  abstract int appendCandidates(Frame frame, int[] candidates, int count);
+
+  boolean isIndexed(int rule) {
+    return indexed[rule];
+  }
+
+  int getIndexedRuleCount() {
+    return indexedRuleCount;
+  }
+
+  void markIndexed(int rule) {
+    indexed[rule] = true;
+    indexedRuleCount++;
+  }
+
+  static JsonLogicNode findGuard(JsonLogicNode rule, RuleMakerJsonLogic jsonLogic) {
+    if (rule.getType() == JsonLogicNodeType.OPERATION) {
+      JsonLogicOperation operation = (JsonLogicOperation) rule;
+      if (jsonLogic.getExpression(operation.getOperator()) == LogicExpression.AND) {
+        return operation.getArguments().isEmpty() ? null : operation.getArguments().get(0);
+      }
+    }
+    return rule;
+  }
+
+  /**
+   * Finds the key of a variable which is read from a slot, a plain variable without a default value.
+   */
+  static String findVariable(JsonLogicNode node) {
+    if (node.getType() != JsonLogicNodeType.VARIABLE) {
+      return null;
+    }
+    JsonLogicVariable variable = (JsonLogicVariable) node;
+    if (variable.getKey().getType() != JsonLogicNodeType.PRIMITIVE || variable.getDefaultValue().getType() != JsonLogicNodeType.PRIMITIVE
+      || ((JsonLogicPrimitive<?>) variable.getDefaultValue()).getValue() != null) {
+      return null;
+    }
+    Object key = ((JsonLogicPrimitive<?>) variable.getKey()).getValue();
+    return key instanceof String && !((String) key).isBlank() ? (String) key : null;
+  }
+
+  static Object findLiteral(JsonLogicNode node) {
+    return node.getType() == JsonLogicNodeType.PRIMITIVE ? ((JsonLogicPrimitive<?>) node).getValue() : null;
+  }
+
+  static int[] toArray(List<Integer> rules) {
+    return rules.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  static int append(int[] target, int count, int[] rules) {
+    System.arraycopy(rules, 0, target, count, rules.length);
+    return count + rules.length;
+  }
+}
@@ -0,0 +1,168 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.expression.CustomNumericComparisonExpression;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNodeType;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sorted boundary index over the range guards of the rules of a {@link RuleSet}, comparisons of a variable with number literals like the
+ * weight band {@code {"<= <":[10000,{"var":"cargo.weight"},20000]}} or {@code {">":[{"var":"cargo.weight"},20000]}}.
+ *
+ * <p>The distinct boundaries of all bands of a variable split the numbers into segments, the boundaries themselves and the open ranges
+ * between them. The rules whose band contains a segment are resolved when the index is built, so the rules of a value are found by a
+ * binary search over the boundaries. The index only decides for finite numbers, which compare the same as doubles and as BigDecimals.
+ * Rules are evaluated as usual for any other value, like numeric strings or null, or if the variable is not set.
+ */
+final class IntervalIndex extends GuardIndex {
+
+  private final SlotIndex[] slotIndexes;
+
+  IntervalIndex(List<JsonLogicNode> rules, SlotLayout slotLayout, RuleMakerJsonLogic jsonLogic) {
+    super(rules.size());
+    Map<Integer, List<Band>> bandsBySlot = new LinkedHashMap<>();
+    for (int rule = 0; rule < rules.size(); rule++) {
+      Band band = findBand(rule, findGuard(rules.get(rule), jsonLogic), jsonLogic);
+      Integer slot = band != null ? slotLayout.getIndexes().get(band.variable) : null;
+      if (slot != null) {
+        bandsBySlot.computeIfAbsent(slot, s -> new ArrayList<>()).add(band);
+        markIndexed(rule);
+      }
+    }
+    this.slotIndexes = bandsBySlot.entrySet().stream()
+      .map(bandsOfSlot -> new SlotIndex(bandsOfSlot.getKey(), bandsOfSlot.getValue()))
+      .toArray(SlotIndex[]::new);
+  }
+
+  @Override
+  int appendCandidates(Frame frame, int[] candidates, int count) {
+    int appended = count;
+    for (SlotIndex slotIndex : slotIndexes) {
+      appended = slotIndex.appendCandidates(frame, candidates, appended);
+    }
+    return appended;
+  }
+
+  private static Band findBand(int rule, JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+    if (node == null || node.getType() != JsonLogicNodeType.OPERATION) {
+      return null;
+    }
+    JsonLogicOperation operation = (JsonLogicOperation) node;
+    JsonLogicArray arguments = operation.getArguments();
+    JsonLogicExpression expression = jsonLogic.getExpression(operation.getOperator());
+    if (!(expression instanceof CustomNumericComparisonExpression)
+      || ((CustomNumericComparisonExpression) expression).getNumberOfArguments() != arguments.size()) {
+      return null;
+    }
+    String key = expression.key();
+    if (arguments.size() == 3) {
+      String variable = findVariable(arguments.get(1));
+      Double lower = findNumber(arguments.get(0));
+      Double upper = findNumber(arguments.get(2));
+      if (variable == null || lower == null || upper == null) {
+        return null;
+      }
+      return new Band(rule, variable, lower, key.startsWith("<="), upper, key.endsWith("<="));
+    }
+
+    // A comparison with the variable on the right is the same as the mirrored comparison with the variable on the left
+    String variable = findVariable(arguments.get(0));
+    Double literal = findNumber(arguments.get(1));
+    boolean variableLeft = variable != null && literal != null;
+    if (!variableLeft) {
+      variable = findVariable(arguments.get(1));
+      literal = findNumber(arguments.get(0));
+      if (variable == null || literal == null) {
+        return null;
+      }
+    }
+    boolean inclusive = key.endsWith("=");
+    if (key.startsWith("<") == variableLeft) {
+      return new Band(rule, variable, Double.NEGATIVE_INFINITY, false, literal, inclusive);
+    }
+    return new Band(rule, variable, literal, inclusive, Double.POSITIVE_INFINITY, false);
+  }
+
+  private static Double findNumber(JsonLogicNode node) {
+    Object value = findLiteral(node);
+    // Adding 0.0 turns -0.0 into 0.0, both are the same boundary
+    return value instanceof Double && Double.isFinite((Double) value) ? (Double) value + 0.0 : null;
+  }
+
+  /**
+   * The numbers for which the guard of a rule is true, each end either a finite boundary or unbounded.
+   */
+  private static final class Band {
+
+    private final int rule;
+    private final String variable;
+    private final double lower;
+    private final boolean lowerInclusive;
+    private final double upper;
+    private final boolean upperInclusive;
+
+    private Band(int rule, String variable, double lower, boolean lowerInclusive, double upper, boolean upperInclusive) {
+      this.rule = rule;
+      this.variable = variable;
+      this.lower = lower;
+      this.lowerInclusive = lowerInclusive;
+      this.upper = upper;
+      this.upperInclusive = upperInclusive;
+    }
+  }
+
+  /**
+   * The bands of one variable. Segment {@code 2 * i + 1} is the boundary {@code i}, segment {@code 2 * i} the open range below it, and
+   * the last segment the open range above the last boundary.
+   */
+  private static final class SlotIndex {
+
+    private final int slot;
+    private final double[] boundaries;
+    private final int[][] rulesBySegment;
+    private final int[] rules;
+
+    private SlotIndex(int slot, List<Band> bands) {
+      this.slot = slot;
+      this.boundaries = bands.stream()
+        .flatMapToDouble(band -> Arrays.stream(new double[]{band.lower, band.upper}))
+        .filter(Double::isFinite)
+        .sorted()
+        .distinct()
+        .toArray();
+      List<List<Integer>> segments = new ArrayList<>();
+      for (int segment = 0; segment <= 2 * boundaries.length; segment++) {
+        segments.add(new ArrayList<>());
+      }
+      for (Band band : bands) {
+        int first = Double.isInfinite(band.lower) ? 0 : 2 * indexOf(band.lower) + (band.lowerInclusive ? 1 : 2);
+        int last = Double.isInfinite(band.upper) ? 2 * boundaries.length : 2 * indexOf(band.upper) + (band.upperInclusive ? 1 : 0);
+        for (int segment = first; segment <= last; segment++) {
+          segments.get(segment).add(band.rule);
+        }
+      }
+      this.rulesBySegment = segments.stream().map(GuardIndex::toArray).toArray(int[][]::new);
+      this.rules = bands.stream().mapToInt(band -> band.rule).toArray();
+    }
+
+    private int indexOf(double boundary) {
+      return Arrays.binarySearch(boundaries, boundary);
+    }
+
+    private int appendCandidates(Frame frame, int[] candidates, int count) {
+      Object value = frame.isSet(slot) ? frame.read(slot) : null;
+      if (!(value instanceof Double) || !Double.isFinite((Double) value)) {
+        return append(candidates, count, rules);
+      }
+      int index = indexOf((Double) value + 0.0);
+      return append(candidates, count, rulesBySegment[index >= 0 ? 2 * index + 1 : -2 * (index + 1)]);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.hlag.rulemaker;
+
+import com.google.gson.JsonArray;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of a Gson {@link JsonArray} as evaluation data, see {@link JsonObjectMap}.
+ */
+final class JsonArrayList extends AbstractList<Object> implements RandomAccess {
+
+  private final JsonArray array;
+
+  JsonArrayList(JsonArray array) {
+    this.array = array;
+  }
+
+  @Override
+  public Object get(int index) {
+    return JsonObjectMap.toValue(array.get(index));
+  }
+
+  @Override
+  public int size() {
+    return array.size();
+  }
+}
@@ -0,0 +1,95 @@
+package com.hlag.rulemaker;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import lombok.NonNull;
+
+/**
+ * Read-only view of a Gson {@link JsonObject} as evaluation data. Values are converted when they are read, so an evaluation only touches
+ * the members its variables reference instead of converting the whole document. Nested objects and arrays are returned as views as well,
+ * numbers become Doubles and JSON null becomes null, like with {@code gson.fromJson(json, Map.class)}.
+ *
+ * <p>The view reflects later changes of the JSON object, which therefore must not be modified during an evaluation.
+ */
+public final class JsonObjectMap extends AbstractMap<String, Object> {
+
+  private final JsonObject object;
+
+  public JsonObjectMap(@NonNull JsonObject object) {
+    this.object = object;
+  }
+
+  @Override
+  public Object get(Object key) {
+    return key instanceof String ? toValue(object.get((String) key)) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && object.has((String) key);
+  }
+
+  @Override
+  public int size() {
+    return object.size();
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        Iterator<Entry<String, JsonElement>> members = object.entrySet().iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return members.hasNext();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            Entry<String, JsonElement> member = members.next();
+            return new SimpleImmutableEntry<>(member.getKey(), toValue(member.getValue()));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return object.size();
+      }
+    };
+  }
+
+  /**
+   * Converts a JSON element into an evaluation value.
+   *
+   * @param element The JSON element, may be null.
+   * @return A view for objects and arrays, a Double, Boolean or String for primitives and null for JSON null.
+   */
+  static Object toValue(JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      return null;
+    }
+    if (element.isJsonObject()) {
+      return new JsonObjectMap(element.getAsJsonObject());
+    }
+    if (element.isJsonArray()) {
+      return new JsonArrayList(element.getAsJsonArray());
+    }
+    JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if (primitive.isNumber()) {
+      // Parsed numbers are Gson's LazilyParsedNumber and built ones any Number, both are Doubles in map data
+      return Double.valueOf(primitive.getAsNumber().doubleValue());
+    }
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean();
+    }
+    return primitive.getAsString();
+  }
+}
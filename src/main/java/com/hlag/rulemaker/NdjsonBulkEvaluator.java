@@ -0,0 +1,240 @@
+package com.hlag.rulemaker;
+
+import com.google.gson.stream.JsonReader;
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Evaluates a rule for every record of a newline-delimited JSON file and writes one line per record to an output file, either
+ * {@code {"value":<result>}} or {@code {"error":"<message>"}}.
+ *
+ * <p>The input file is memory-mapped in line-aligned chunks which are evaluated in parallel. Only the data the rule references by name is
+ * materialized from each record, or the whole record if the rule computes a name, see {@link SelectiveJsonLoader#of(CompiledRule)}. The
+ * results of a chunk are written as soon as all chunks before it are written.
+ *
+ * <p>At most twice as many chunks as the parallelism of the pool are in flight, and the result lines of each of them are held on the heap
+ * until the chunk is written. The memory needed therefore grows with the chunk size, the parallelism and the length of the result lines
+ * compared to the records, but not with the size of the input file. With the default chunk size and 8 threads, and result lines shorter
+ * than their records, that is in the order of 64 MB.
+ */
+public class NdjsonBulkEvaluator {
+
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private static final byte NEW_LINE = '\n';
+
+  @Getter
+  private final int chunkSize;
+  @Getter
+  private final ForkJoinPool pool;
+
+  public NdjsonBulkEvaluator() {
+    this(null, null);
+  }
+
+  /**
+   * Creates the bulk evaluator, unset values fall back to their defaults.
+   *
+   * @param chunkSize The number of bytes of the input file which are mapped and evaluated together, {@value #DEFAULT_CHUNK_SIZE} by
+   *                  default. Chunks are extended to the end of their last line. Larger chunks need proportionally more memory for their
+   *                  results.
+   * @param pool      The pool which evaluates the chunks, {@link ForkJoinPool#commonPool()} by default.
+   */
+  @Builder
+  private NdjsonBulkEvaluator(Integer chunkSize, ForkJoinPool pool) {
+    if (chunkSize != null && chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, was " + chunkSize);
+    }
+    this.chunkSize = chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+    this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Evaluates the rule for every record of the input file. Empty lines are skipped, a line which is no valid UTF-8 or no valid JSON is
+   * counted as an error and gets an error line.
+   *
+   * @param rule   The rule to evaluate.
+   * @param input  The newline-delimited JSON file with one JSON object per line.
+   * @param output The file to write the results to, one line per record in the order of the input file.
+   * @return The number of records, matches and errors.
+   * @throws IOException if a file cannot be read or written.
+   */
+  public Summary evaluate(@NonNull CompiledRule rule, @NonNull Path input, @NonNull Path output) throws IOException {
+    SelectiveJsonLoader loader = SelectiveJsonLoader.of(rule);
+    int maxInFlight = 2 * pool.getParallelism();
+    Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+    Summary summary = new Summary();
+
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+      Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      long size = channel.size();
+      long start = 0;
+      while (start < size) {
+        long end = findChunkEnd(channel, start, size);
+        long chunkStart = start;
+        if (inFlight.size() >= maxInFlight) {
+          write(inFlight.removeFirst(), writer, summary);
+        }
+        inFlight.addLast(pool.submit(
+          () -> evaluateChunk(rule, loader, channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, end - chunkStart))));
+        start = end;
+      }
+      while (!inFlight.isEmpty()) {
+        write(inFlight.removeFirst(), writer, summary);
+      }
+    } finally {
+      inFlight.forEach(future -> future.cancel(true));
+    }
+    return summary;
+  }
+
+  private long findChunkEnd(FileChannel channel, long start, long size) throws IOException {
+    long position = Math.min(start + chunkSize, size);
+    ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == NEW_LINE) {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  private static void write(Future<ChunkResult> future, Writer writer, Summary summary) throws IOException {
+    ChunkResult result;
+    try {
+      result = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while evaluating the input file", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+    }
+    writer.write(result.output.toString());
+    summary.records += result.records;
+    summary.matches += result.matches;
+    summary.errors += result.errors;
+  }
+
+  private static ChunkResult evaluateChunk(CompiledRule rule, SelectiveJsonLoader loader, MappedByteBuffer chunk) {
+    ChunkResult result = new ChunkResult();
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    CharBuffer line = CharBuffer.allocate(1024);
+
+    int lineStart = 0;
+    int limit = chunk.limit();
+    for (int i = 0; i <= limit; i++) {
+      if (i < limit && chunk.get(i) != NEW_LINE) {
+        continue;
+      }
+      if (i > lineStart) {
+        try {
+          line = decode(decoder, chunk.duplicate().position(lineStart).limit(i), line);
+          if (!isBlank(line)) {
+            evaluateLine(rule, loader, line, result);
+          }
+        } catch (CharacterCodingException e) {
+          result.records++;
+          writeError("Invalid UTF-8 in the input file: " + e.getMessage(), result);
+        }
+      }
+      lineStart = i + 1;
+    }
+    return result;
+  }
+
+  private static CharBuffer decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars) throws CharacterCodingException {
+    CharBuffer target = chars;
+    target.clear();
+    decoder.reset();
+    while (true) {
+      CoderResult coderResult = decoder.decode(bytes, target, true);
+      if (coderResult.isUnderflow()) {
+        coderResult = decoder.flush(target);
+      }
+      if (coderResult.isOverflow()) {
+        CharBuffer larger = CharBuffer.allocate(target.capacity() * 2);
+        target.flip();
+        larger.put(target);
+        target = larger;
+      } else if (coderResult.isError()) {
+        coderResult.throwException();
+      } else {
+        target.flip();
+        return target;
+      }
+    }
+  }
+
+  private static boolean isBlank(CharBuffer line) {
+    for (int i = 0; i < line.limit(); i++) {
+      if (!Character.isWhitespace(line.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void evaluateLine(CompiledRule rule, SelectiveJsonLoader loader, CharBuffer line, ChunkResult result) {
+    result.records++;
+    try {
+      JsonReader reader = new JsonReader(new CharArrayReader(line.array(), 0, line.limit()));
+      Object value = rule.evaluate(loader.read(reader));
+      if (JsonLogic.truthy(value)) {
+        result.matches++;
+      }
+      result.output.append("{\"value\":").append(RuleMaker.gson.toJson(value)).append("}\n");
+    } catch (IOException | RuntimeException e) {
+      writeError(String.valueOf(e.getMessage()), result);
+    }
+  }
+
+  private static void writeError(String message, ChunkResult result) {
+    result.errors++;
+    result.output.append("{\"error\":").append(RuleMaker.gson.toJson(message)).append("}\n");
+  }
+
+  private static final class ChunkResult {
+
+    private final StringBuilder output = new StringBuilder();
+    private long records;
+    private long matches;
+    private long errors;
+  }
+
+  /**
+   * The number of records of a bulk evaluation, of the records whose result is truthy and of the records which could not be evaluated.
+   */
+  @Getter
+  public static final class Summary {
+
+    private long records;
+    private long matches;
+    private long errors;
+  }
+}
@@ -0,0 +1,317 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only views of plain Java objects and records as evaluation data. The properties of an object are its record components, its
+ * getters ({@code getX()}, or {@code isX()} returning boolean, which wins over {@code getX()}) and its public fields. Their accessors are
+ * resolved once per class into method handles, an evaluation neither uses reflection nor copies the object into a map.
+ *
+ * <p>Values are converted when they are read: objects, maps, lists and arrays are returned as views, enums as their name, and numbers,
+ * strings, booleans, dates and other JDK types as they are. A property is present if the class has it, even if its value is null, just
+ * like a map key with a null value.
+ */
+final class ObjectData {
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+    @Override
+    protected Map<String, MethodHandle> computeValue(Class<?> type) {
+      return findAccessors(type);
+    }
+  };
+
+  private ObjectData() {
+  }
+
+  /**
+   * Creates the evaluation data of an object.
+   *
+   * @param data A map, or an object whose properties are the top-level variables.
+   * @return The read-only view of the object.
+   */
+  static Map<String, Object> of(Object data) {
+    if (data instanceof Map) {
+      return new MapView((Map<?, ?>) data);
+    }
+    if (!isObject(data)) {
+      throw new IllegalArgumentException("Expected an object with properties but was " + data.getClass().getName());
+    }
+    return new ObjectView(data);
+  }
+
+  static Object toValue(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Map) {
+      return new MapView((Map<?, ?>) value);
+    }
+    if (value instanceof List) {
+      return new ListView((List<?>) value);
+    }
+    if (value instanceof Object[]) {
+      return new ListView(Arrays.asList((Object[]) value));
+    }
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return isObject(value) ? new ObjectView(value) : value;
+  }
+
+  private static boolean isObject(Object value) {
+    if (value instanceof Number || value instanceof CharSequence || value instanceof Boolean || value instanceof Character
+      || value instanceof TemporalAccessor || value instanceof Date || value instanceof Iterable) {
+      return false;
+    }
+    Class<?> type = value.getClass();
+    String name = type.getName();
+    return !type.isArray() && !name.startsWith("java.") && !name.startsWith("javax.");
+  }
+
+  private static Map<String, MethodHandle> findAccessors(Class<?> type) {
+    Map<String, MethodHandle> accessors = new LinkedHashMap<>();
+    for (Method method : findRecordAccessors(type)) {
+      putAccessor(accessors, method.getName(), method);
+    }
+    // getMethods() and getFields() have no defined order, sorting them makes the properties the same on every JVM. Like
+    // java.beans.Introspector, isX() wins over getX() if a class has both.
+    Method[] methods = type.getMethods();
+    Arrays.sort(methods, Comparator.comparing(ObjectData::getPropertyName, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(method -> !method.getName().startsWith("is"))
+      .thenComparing(method -> method.getReturnType().getName()));
+    for (Method method : methods) {
+      String property = getPropertyName(method);
+      if (property != null) {
+        putAccessor(accessors, property, method);
+      }
+    }
+    Field[] fields = type.getFields();
+    Arrays.sort(fields, Comparator.comparing(Field::getName));
+    for (Field field : fields) {
+      if (!Modifier.isStatic(field.getModifiers()) && !accessors.containsKey(field.getName()) && field.trySetAccessible()) {
+        try {
+          accessors.put(field.getName(), MethodHandles.lookup().unreflectGetter(field).asType(ACCESSOR_TYPE));
+        } catch (IllegalAccessException e) {
+          // Not accessible from this module, the field is no property
+        }
+      }
+    }
+    return Collections.unmodifiableMap(accessors);
+  }
+
+  private static Method[] findRecordAccessors(Class<?> type) {
+    // Records are looked up at runtime, so the library keeps running on Java 11
+    try {
+      Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+      if (components == null) {
+        return new Method[0];
+      }
+      Method[] accessors = new Method[components.length];
+      for (int i = 0; i < components.length; i++) {
+        accessors[i] = (Method) components[i].getClass().getMethod("getAccessor").invoke(components[i]);
+      }
+      return accessors;
+    } catch (ReflectiveOperationException e) {
+      return new Method[0];
+    }
+  }
+
+  private static String getPropertyName(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getParameterCount() > 0
+      || method.getDeclaringClass() == Object.class) {
+      return null;
+    }
+    String name = method.getName();
+    if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+      return decapitalize(name.substring(3));
+    }
+    boolean booleanType = method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class;
+    if (name.startsWith("is") && name.length() > 2 && booleanType) {
+      return decapitalize(name.substring(2));
+    }
+    return null;
+  }
+
+  private static String decapitalize(String name) {
+    // Like java.beans.Introspector, "URL" stays "URL"
+    if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+      return name;
+    }
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static void putAccessor(Map<String, MethodHandle> accessors, String property, Method method) {
+    if (accessors.containsKey(property) || !method.trySetAccessible()) {
+      return;
+    }
+    try {
+      accessors.put(property, MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE));
+    } catch (IllegalAccessException e) {
+      // Not accessible from this module, the method is no property
+    }
+  }
+
+  /**
+   * View of an object, its properties are the keys.
+   */
+  private static final class ObjectView extends AbstractMap<String, Object> {
+
+    private final Object object;
+    private final Map<String, MethodHandle> accessors;
+
+    private ObjectView(Object object) {
+      this.object = object;
+      this.accessors = ACCESSORS.get(object.getClass());
+    }
+
+    @Override
+    public Object get(Object key) {
+      MethodHandle accessor = accessors.get(key);
+      return accessor != null ? read((String) key, accessor) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return accessors.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return accessors.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          Iterator<Entry<String, MethodHandle>> properties = accessors.entrySet().iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return properties.hasNext();
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              Entry<String, MethodHandle> property = properties.next();
+              return new SimpleImmutableEntry<>(property.getKey(), read(property.getKey(), property.getValue()));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return accessors.size();
+        }
+      };
+    }
+
+    private Object read(String property, MethodHandle accessor) {
+      try {
+        return toValue((Object) accessor.invokeExact(object));
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RuleMakerEvaluationException("Cannot read property '" + property + "' of " + object.getClass().getName(), e);
+      }
+    }
+  }
+
+  /**
+   * View of a map whose values are converted.
+   */
+  private static final class MapView extends AbstractMap<String, Object> {
+
+    private final Map<?, ?> map;
+
+    private MapView(Map<?, ?> map) {
+      this.map = map;
+    }
+
+    @Override
+    public Object get(Object key) {
+      return toValue(map.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          Iterator<? extends Entry<?, ?>> entries = map.entrySet().iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              Entry<?, ?> entry = entries.next();
+              return new SimpleImmutableEntry<>(String.valueOf(entry.getKey()), toValue(entry.getValue()));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return map.size();
+        }
+      };
+    }
+  }
+
+  /**
+   * View of a list or an array whose elements are converted.
+   */
+  private static final class ListView extends AbstractList<Object> {
+
+    private final List<?> list;
+
+    private ListView(List<?> list) {
+      this.list = list;
+    }
+
+    @Override
+    public Object get(int index) {
+      return toValue(list.get(index));
+    }
+
+    @Override
+    public int size() {
+      return list.size();
+    }
+  }
+}
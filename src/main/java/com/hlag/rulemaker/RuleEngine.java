@@ -0,0 +1,68 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Engines which can execute a compiled rule. All engines return the same results, they differ in how much work is done per evaluation.
+ *
+ * <p>The engine of the default {@link RuleMakerJsonLogic} can be set with the system property {@value #SYSTEM_PROPERTY}.
+ */
+@Slf4j
+public enum RuleEngine {
+
+  /**
+   * Walks the JsonLogic syntax tree on every evaluation and looks up each operation by its key.
+   */
+  INTERPRETER {
+    @Override
+    CompiledNode compile(JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+      return data -> jsonLogic.evaluate(node, data);
+    }
+  },
+
+  /**
+   * Turns the syntax tree once into a tree of closures with the operations already bound, so an evaluation only runs the closures.
+   */
+  CLOSURE {
+    @Override
+    CompiledNode compile(JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+      return new ClosureCompiler(jsonLogic).compile(node);
+    }
+  },
+
+  /**
+   * Starts with the {@link #INTERPRETER} and promotes a rule to the {@link #CLOSURE} engine once it has been evaluated as often as the
+   * promotion threshold of its {@link RuleMakerJsonLogic}.
+   */
+  ADAPTIVE {
+    @Override
+    CompiledNode compile(JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+      return new AdaptiveNode(node, jsonLogic, jsonLogic.getPromotionThreshold());
+    }
+  };
+
+  public static final String SYSTEM_PROPERTY = "rulemaker.engine";
+
+  abstract CompiledNode compile(JsonLogicNode node, RuleMakerJsonLogic jsonLogic);
+
+  /**
+   * Returns the engine configured with the system property {@value #SYSTEM_PROPERTY}, or {@link #INTERPRETER} if it is not set or not the
+   * name of an engine.
+   *
+   * @return The default engine.
+   */
+  public static RuleEngine defaultEngine() {
+    String engine = System.getProperty(SYSTEM_PROPERTY);
+    if (engine == null || engine.isBlank()) {
+      return INTERPRETER;
+    }
+    try {
+      return valueOf(engine.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown rule engine '{}' in system property {}, using {}", engine, SYSTEM_PROPERTY, INTERPRETER);
+      return INTERPRETER;
+    }
+  }
+}
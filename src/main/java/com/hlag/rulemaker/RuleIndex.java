@@ -0,0 +1,45 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The equality and range guard indexes of rules which are evaluated together, see {@link GuardIndex}.
+ */
+final class RuleIndex {
+
+  private final int ruleCount;
+  private final GuardIndex[] guardIndexes;
+  private final int[] unguardedRules;
+
+  RuleIndex(List<JsonLogicNode> rules, SlotLayout slotLayout, RuleMakerJsonLogic jsonLogic) {
+    this.ruleCount = rules.size();
+    this.guardIndexes = new GuardIndex[]{
+      new EqualityIndex(rules, slotLayout, jsonLogic),
+      new IntervalIndex(rules, slotLayout, jsonLogic)};
+    this.unguardedRules = IntStream.range(0, rules.size())
+      .filter(rule -> Arrays.stream(guardIndexes).noneMatch(index -> index.isIndexed(rule)))
+      .toArray();
+  }
+
+  /**
+   * Finds the rules which have to be evaluated for the data of the frame. Every other rule evaluates to false, if its variables are set.
+   *
+   * @param frame The frame with the data.
+   * @return The indexes of the rules to evaluate, in no particular order.
+   */
+  int[] findCandidates(Frame frame) {
+    int[] candidates = new int[ruleCount];
+    int count = GuardIndex.append(candidates, 0, unguardedRules);
+    for (GuardIndex guardIndex : guardIndexes) {
+      count = guardIndex.appendCandidates(frame, candidates, count);
+    }
+    return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+  }
+
+  int getIndexedRuleCount() {
+    return ruleCount - unguardedRules.length;
+  }
+}
@@ -5,13 +5,6 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
-import com.hlag.rulemaker.exception.RuleMakerException;
-import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
-import com.hlag.rulemaker.exception.RuleMakerParseExpressionException;
-import io.github.jamsesso.jsonlogic.JsonLogicException;
-import io.github.jamsesso.jsonlogic.ast.JsonLogicParseException;
-import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -28,9 +21,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RuleMaker {
 
-  private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+  // Gson is thread-safe, the shared instance is used by concurrent evaluations
+  static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
 
-  private static final RuleMakerJsonLogic RULE_MAKER_JSON_LOGIC = new RuleMakerJsonLogic();
+  // Shared by the static methods and by rule sets and decision tables without own operations, so its parse cache is shared as well
+  static final RuleMakerJsonLogic RULE_MAKER_JSON_LOGIC = new RuleMakerJsonLogic();
 
   private static final Set<Class<?>> ALLOWED_LITERAL_TYPES = Set.of(
     Number.class,
@@ -44,6 +39,8 @@ public class RuleMaker {
 
   protected final Object expression;
 
+  private volatile CompiledRule compiledRule;
+
   protected RuleMaker(Object expression) {
     this.expression = expression;
   }
@@ -503,30 +500,95 @@ public class RuleMaker {
     return gson.toJson(expression);
   }
 
+  /**
+   * Evaluates the expression with the given data. The expression is compiled from its in-memory tree on the first evaluation, it is never
+   * serialized to JSON.
+   *
+   * @param data The data to evaluate the expression with.
+   * @return The result of the evaluation.
+   */
   public Object evaluate(Map<String, Object> data) {
-    return evaluate(toJson(), data);
+    CompiledRule rule = compiledRule;
+    if (rule == null) {
+      rule = compile();
+      compiledRule = rule;
+    }
+    return rule.evaluate(data);
+  }
+
+  /**
+   * Evaluates the expression with the given JSON data without converting it into a map first, see
+   * {@link CompiledRule#evaluateJson(JsonObject)}.
+   *
+   * @param data The JSON data to evaluate the expression with.
+   * @return The result of the evaluation.
+   */
+  public Object evaluateJson(@NonNull JsonObject data) {
+    return evaluate(new JsonObjectMap(data));
+  }
+
+  /**
+   * Evaluates the expression with a plain Java object or record as data without converting it into a map first, see
+   * {@link CompiledRule#evaluateObject(Object)}.
+   *
+   * @param data The object to evaluate the expression with.
+   * @return The result of the evaluation.
+   */
+  public Object evaluateObject(@NonNull Object data) {
+    return evaluate(ObjectData.of(data));
+  }
+
+  /**
+   * Compiles this expression into a rule which can be evaluated many times. The rule is built directly from the in-memory expression tree,
+   * without serializing or parsing it.
+   *
+   * @return The compiled rule.
+   */
+  public CompiledRule compile() {
+    return RULE_MAKER_JSON_LOGIC.compile(this);
+  }
+
+  /**
+   * Compiles the JSON expression into a rule which can be evaluated many times without parsing it again.
+   *
+   * @param expression The JSON expression to compile.
+   * @return The compiled rule.
+   */
+  public static CompiledRule compile(String expression) {
+    return RULE_MAKER_JSON_LOGIC.compile(expression);
   }
 
   /**
-   * Evaluates the JSON expression with the given data.
+   * Evaluates the JSON expression with the given data. The expression is compiled once and cached together with its required variables,
+   * so repeated evaluations of the same expression neither parse it nor search it for variables again.
    *
    * @param data The data to evaluate the JSON expression with.
    * @return The result of the evaluation.
    */
   public static Object evaluate(String expression, Map<String, Object> data) {
-    try {
-      Set<String> missingVariables = findMissingVariables(expression, data);
-      if (!missingVariables.isEmpty()) {
-        throw new RuleMakerMissingVariablesException(missingVariables);
-      }
-      return RULE_MAKER_JSON_LOGIC.apply(expression, data);
-    } catch (JsonLogicParseException e) {
-      throw new RuleMakerParseExpressionException(e.getMessage(), e);
-    } catch (JsonLogicEvaluationException e) {
-      throw new RuleMakerEvaluationException(e.getMessage(), e);
-    } catch (JsonLogicException e) {
-      throw new RuleMakerException(e.getMessage(), e);
-    }
+    return RULE_MAKER_JSON_LOGIC.compile(expression).evaluate(data);
+  }
+
+  /**
+   * Evaluates the JSON expression with the given JSON data without converting it into a map first, see
+   * {@link CompiledRule#evaluateJson(JsonObject)}.
+   *
+   * @param data The JSON data to evaluate the JSON expression with.
+   * @return The result of the evaluation.
+   */
+  public static Object evaluateJson(String expression, @NonNull JsonObject data) {
+    return RULE_MAKER_JSON_LOGIC.compile(expression).evaluateJson(data);
+  }
+
+  /**
+   * Evaluates the JSON expression with a plain Java object or record as data without converting it into a map first, see
+   * {@link CompiledRule#evaluateObject(Object)}.
+   *
+   * @param data The object to evaluate the JSON expression with.
+   * @return The result of the evaluation.
+   */
+  public static Object evaluateObject(String expression, @NonNull Object data) {
+    return RULE_MAKER_JSON_LOGIC.compile(expression).evaluateObject(data);
   }
 
   /**
@@ -569,46 +631,15 @@ public class RuleMaker {
   }
 
   /**
-   * Finds variables in the expression that are not present in the data map.
+   * Finds the variables of the JSON expression which have to be present in the data. The "accumulator" and "current" variables of the
+   * reduce operation are provided by the operation itself.
    *
-   * @param data The data map to check for variable presence.
-   * @return A set of variables that are missing in the data map.
+   * @param expression The JSON expression to search for variables.
+   * @return A set of the required variables.
    */
-  private static Set<String> findMissingVariables(String expression, Map<String, Object> data) {
+  static Set<String> findRequiredVariables(String expression) {
     return findVariables(expression).stream()
       .filter(variable -> !(variable.equals("accumulator") || variable.equals("current")))
-      .filter(variable -> !isVariablePresent(data, variable))
       .collect(Collectors.toSet());
   }
-
-  /**
-   * Checks if a variable is present in the data map, supporting nested properties.
-   *
-   * @param data     The data map where variables are looked up.
-   * @param variable The variable to check, possibly a nested property like "person.firstName".
-   * @return true if the variable is present in the data map; false otherwise.
-   */
-  @SuppressWarnings("unchecked")
-  private static boolean isVariablePresent(Map<String, Object> data, String variable) {
-    if (variable == null || variable.isBlank()) {
-      return true;
-    }
-    String[] parts = variable.split("\\.");
-    Map<String, Object> current = data;
-    for (int i = 0; i < parts.length; i++) {
-      if (i == parts.length - 1) { // Last part: check existence directly
-        return current.containsKey(parts[i]);
-      } else { // Not the last part: navigate to the next nested map
-        Object next = current.get(parts[i]);
-        if (next instanceof Map) {
-          // Safely cast and continue navigating
-          current = (Map<String, Object>) next;
-        } else {
-          // Next part is not a Map, indicating the variable path is invalid
-          return false;
-        }
-      }
-    }
-    return false;
-  }
 }
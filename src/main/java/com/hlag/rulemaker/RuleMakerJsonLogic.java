@@ -1,41 +1,264 @@
 package com.hlag.rulemaker;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.hlag.rulemaker.exception.RuleMakerParseExpressionException;
 import com.hlag.rulemaker.expression.BigDecimalMathExpression;
 import com.hlag.rulemaker.expression.ClampExpression;
 import com.hlag.rulemaker.expression.CustomNumericComparisonExpression;
 import com.hlag.rulemaker.expression.DateDiffExpression;
-import io.github.jamsesso.jsonlogic.JsonLogic;
+import com.hlag.rulemaker.expression.HolidayCalendar;
+import com.hlag.rulemaker.expression.NumericMode;
 import io.github.jamsesso.jsonlogic.JsonLogicException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicParseException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicParser;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluator;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.AllExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ArrayHasExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ConcatenateExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.EqualityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.FilterExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.IfExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.InExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.InequalityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.LogExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.LogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MapExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MergeExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MissingExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.NotExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ReduceExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.StrictEqualityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.StrictInequalityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.SubstringExpression;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
 
+/**
+ * JsonLogic setup of the rule maker: the standard JsonLogic operations plus the custom ones from {@code com.hlag.rulemaker.expression}.
+ * Parsing and evaluation are separate steps, so a parsed expression can be evaluated many times. Compiled rules are executed by the
+ * configured {@link RuleEngine}.
+ *
+ * <p>Instances are thread-safe. The operations are registered once on construction and only read afterwards, the parse cache is a
+ * concurrent cache and compiled rules are immutable, so one instance can serve parallel evaluations.
+ */
 public class RuleMakerJsonLogic {
 
-  private final JsonLogic jsonLogic;
+  public static final int DEFAULT_PROMOTION_THRESHOLD = 1_000;
+  public static final long DEFAULT_PARSE_CACHE_MAXIMUM_SIZE = 10_000;
+
+  private final Map<String, JsonLogicExpression> expressions = new HashMap<>();
+  private final Cache<String, CompiledRule> parseCache;
+  @Getter(AccessLevel.PACKAGE)
+  private final JsonLogicEvaluator evaluator;
+  @Getter
+  private final RuleEngine engine;
+  @Getter
+  private final int promotionThreshold;
+  @Getter
+  private final NumericMode numericMode;
+  @Getter
+  private final boolean optimize;
 
   public RuleMakerJsonLogic() {
-    this.jsonLogic = new JsonLogic();
+    this(null, null, null, null, null, null, null);
+  }
+
+  public RuleMakerJsonLogic(@NonNull RuleEngine engine) {
+    this(engine, null, null, null, null, null, null);
+  }
+
+  /**
+   * Creates the JsonLogic setup, unset values fall back to their defaults.
+   *
+   * @param engine                  The engine which executes compiled rules, {@link RuleEngine#defaultEngine()} by default.
+   * @param promotionThreshold      The number of evaluations after which the {@link RuleEngine#ADAPTIVE} engine promotes a rule,
+   *                                {@value #DEFAULT_PROMOTION_THRESHOLD} by default.
+   * @param parseCacheMaximumSize   The maximum number of parsed expressions kept in the parse cache,
+   *                                {@value #DEFAULT_PARSE_CACHE_MAXIMUM_SIZE} by default.
+   * @param parseCacheMaximumWeight The maximum total length of the JSON expressions kept in the parse cache, instead of a maximum size.
+   * @param numericMode             How the math operations calculate, {@link NumericMode#EXACT} by default.
+   * @param holidayCalendars        The holiday calendars which business day differences of {@code dateDiff} can reference.
+   * @param optimize                Whether rules are simplified before they are compiled, true by default. Constant operations are
+   *                                folded, nested and/or flattened and dead branches removed, the simplified rules evaluate exactly
+   *                                like the original ones.
+   */
+  @Builder
+  private RuleMakerJsonLogic(RuleEngine engine, Integer promotionThreshold, Long parseCacheMaximumSize, Long parseCacheMaximumWeight,
+    NumericMode numericMode, @Singular List<HolidayCalendar> holidayCalendars, Boolean optimize) {
+    if (promotionThreshold != null && promotionThreshold < 1) {
+      throw new IllegalArgumentException("Promotion threshold must be positive, was " + promotionThreshold);
+    }
+    this.engine = engine != null ? engine : RuleEngine.defaultEngine();
+    this.promotionThreshold = promotionThreshold != null ? promotionThreshold : DEFAULT_PROMOTION_THRESHOLD;
+    this.parseCache = createParseCache(parseCacheMaximumSize, parseCacheMaximumWeight);
+    this.numericMode = numericMode != null ? numericMode : NumericMode.EXACT;
+    this.optimize = optimize == null || optimize;
+
+    //Standard JsonLogic operations
+    addOperation(IfExpression.IF);
+    addOperation(IfExpression.TERNARY);
+    addOperation(EqualityExpression.INSTANCE);
+    addOperation(InequalityExpression.INSTANCE);
+    addOperation(StrictEqualityExpression.INSTANCE);
+    addOperation(StrictInequalityExpression.INSTANCE);
+    addOperation(NotExpression.SINGLE);
+    addOperation(NotExpression.DOUBLE);
+    addOperation(LogicExpression.AND);
+    addOperation(LogicExpression.OR);
+    addOperation(LogExpression.STDOUT);
+    addOperation(MapExpression.INSTANCE);
+    addOperation(FilterExpression.INSTANCE);
+    addOperation(ReduceExpression.INSTANCE);
+    addOperation(AllExpression.INSTANCE);
+    addOperation(ArrayHasExpression.SOME);
+    addOperation(ArrayHasExpression.NONE);
+    addOperation(MergeExpression.INSTANCE);
+    addOperation(InExpression.INSTANCE);
+    addOperation(ConcatenateExpression.INSTANCE);
+    addOperation(SubstringExpression.INSTANCE);
+    addOperation(MissingExpression.ALL);
+    addOperation(MissingExpression.SOME);
 
     //Add custom operations
-    jsonLogic.addOperation(CustomNumericComparisonExpression.GT);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.GTE);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LT);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LTE);
-    jsonLogic.addOperation(BigDecimalMathExpression.ADD);
-    jsonLogic.addOperation(BigDecimalMathExpression.SUBTRACT);
-    jsonLogic.addOperation(BigDecimalMathExpression.MULTIPLY);
-    jsonLogic.addOperation(BigDecimalMathExpression.DIVIDE);
-    jsonLogic.addOperation(BigDecimalMathExpression.MODULO);
-    jsonLogic.addOperation(BigDecimalMathExpression.MIN);
-    jsonLogic.addOperation(BigDecimalMathExpression.MAX);
-
-    jsonLogic.addOperation(ClampExpression.INSTANCE);
-    jsonLogic.addOperation(DateDiffExpression.INSTANCE);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LT_LTE);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LT_LT);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LTE_LTE);
-    jsonLogic.addOperation(CustomNumericComparisonExpression.LTE_LT);
+    addOperation(CustomNumericComparisonExpression.GT);
+    addOperation(CustomNumericComparisonExpression.GTE);
+    addOperation(CustomNumericComparisonExpression.LT);
+    addOperation(CustomNumericComparisonExpression.LTE);
+    addOperation(BigDecimalMathExpression.ADD.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.SUBTRACT.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.MULTIPLY.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.DIVIDE.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.MODULO.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.MIN.withNumericMode(this.numericMode));
+    addOperation(BigDecimalMathExpression.MAX.withNumericMode(this.numericMode));
+
+    addOperation(ClampExpression.INSTANCE);
+    addOperation(DateDiffExpression.INSTANCE.withHolidayCalendars(holidayCalendars != null ? holidayCalendars : List.of()));
+    addOperation(CustomNumericComparisonExpression.LT_LTE);
+    addOperation(CustomNumericComparisonExpression.LT_LT);
+    addOperation(CustomNumericComparisonExpression.LTE_LTE);
+    addOperation(CustomNumericComparisonExpression.LTE_LT);
+
+    this.evaluator = new JsonLogicEvaluator(expressions);
+  }
+
+  private static Cache<String, CompiledRule> createParseCache(Long maximumSize, Long maximumWeight) {
+    if (maximumSize != null && maximumWeight != null) {
+      throw new IllegalArgumentException("Either the maximum size or the maximum weight of the parse cache can be set");
+    }
+
+    CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().recordStats();
+    if (maximumWeight != null) {
+      return cacheBuilder
+        .maximumWeight(maximumWeight)
+        .weigher((String json, CompiledRule rule) -> json.length())
+        .build();
+    }
+    return cacheBuilder
+      .maximumSize(maximumSize != null ? maximumSize : DEFAULT_PARSE_CACHE_MAXIMUM_SIZE)
+      .build();
+  }
+
+  private void addOperation(JsonLogicExpression expression) {
+    expressions.put(expression.key(), expression);
+  }
+
+  JsonLogicExpression getExpression(String key) {
+    return expressions.get(key);
+  }
+
+  /**
+   * Compiles the expression of the RuleMaker directly from its in-memory tree.
+   *
+   * @param ruleMaker The RuleMaker to compile.
+   * @return The compiled rule.
+   */
+  public CompiledRule compile(@NonNull RuleMaker ruleMaker) {
+    try {
+      return new CompiledRule(this, optimize(ExpressionTree.toNode(ruleMaker.expression)),
+        ExpressionTree.findRequiredVariables(ruleMaker.expression));
+    } catch (JsonLogicParseException e) {
+      throw new RuleMakerParseExpressionException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Compiles the JSON expression. Compiled rules are cached by their JSON text together with their required variables, the least recently
+   * used ones are evicted when the cache is full.
+   *
+   * @param json The JSON expression to compile.
+   * @return The compiled rule.
+   */
+  public CompiledRule compile(@NonNull String json) {
+    try {
+      return getCompiledRule(json);
+    } catch (JsonLogicParseException e) {
+      throw new RuleMakerParseExpressionException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Parses the JSON expression into a JsonLogic syntax tree. The syntax tree is taken from the cache of compiled rules, see
+   * {@link #compile(String)}.
+   *
+   * @param json The JSON expression.
+   * @return The parsed syntax tree.
+   * @throws JsonLogicParseException if the JSON is not a valid JsonLogic expression.
+   */
+  public JsonLogicNode parse(String json) throws JsonLogicParseException {
+    return getCompiledRule(json).getNode();
+  }
+
+  private CompiledRule getCompiledRule(String json) throws JsonLogicParseException {
+    CompiledRule rule = parseCache.getIfPresent(json);
+    if (rule == null) {
+      rule = new CompiledRule(this, optimize(JsonLogicParser.parse(json)), RuleMaker.findRequiredVariables(json));
+      parseCache.put(json, rule);
+    }
+    return rule;
+  }
+
+  private JsonLogicNode optimize(JsonLogicNode node) {
+    return optimize ? RuleOptimizer.optimize(node, this) : node;
+  }
+
+  /**
+   * Evaluates an already parsed syntax tree with the given data.
+   *
+   * @param node The parsed syntax tree.
+   * @param data The data to evaluate the syntax tree with.
+   * @return The result of the evaluation.
+   * @throws JsonLogicEvaluationException if the evaluation fails.
+   */
+  public Object evaluate(JsonLogicNode node, Object data) throws JsonLogicEvaluationException {
+    return evaluator.evaluate(node, data);
+  }
+
+  /**
+   * Returns the hit, miss and eviction counters of the parse cache.
+   *
+   * @return A snapshot of the parse cache statistics.
+   */
+  public CacheStats getParseCacheStats() {
+    return parseCache.stats();
+  }
+
+  public long getParseCacheSize() {
+    return parseCache.size();
   }
 
   public Object apply(String json, Object data) throws JsonLogicException {
-    return jsonLogic.apply(json, data);
+    return evaluate(parse(json), data);
   }
 }
@@ -0,0 +1,306 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.expression.BigDecimalMathExpression;
+import com.hlag.rulemaker.expression.ClampExpression;
+import com.hlag.rulemaker.expression.CustomNumericComparisonExpression;
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicBoolean;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNull;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNumber;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicPrimitive;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicString;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.ConcatenateExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.EqualityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.IfExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.InExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.InequalityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.LogicExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.MergeExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.NotExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.StrictEqualityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.StrictInequalityExpression;
+import io.github.jamsesso.jsonlogic.evaluator.expressions.SubstringExpression;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simplifies the syntax tree of a rule before it is compiled, without changing the result of any evaluation:
+ *
+ * <ul>
+ *   <li>Operations whose arguments are all constant are evaluated once, including the BigDecimal math and the numeric comparisons. A
+ *   BigDecimal result is kept as {@code {"+":["<value>"]}}, which returns exactly that BigDecimal. Results which a literal cannot
+ *   represent, like longs or lists, and operations which fail are left as they are.</li>
+ *   <li>Nested {@code and} and {@code or} are flattened, constant arguments which can never be their result are removed, and the
+ *   arguments after a constant which decides the result are dead.</li>
+ *   <li>{@code if} branches with a constant condition are removed, or become the else branch.</li>
+ *   <li>Double negations are replaced by a single {@code !!}, which is removed if its argument is a boolean anyway.</li>
+ *   <li>In the exact numeric modes, {@code +} and {@code *} whose first argument is the same operation are flattened, which calculates
+ *   the same steps in the same order.</li>
+ * </ul>
+ *
+ * <p>Removed branches may reference variables, the variables a rule requires are still taken from the original tree.
+ */
+final class RuleOptimizer {
+
+  private final RuleMakerJsonLogic jsonLogic;
+  private final Map<JsonLogicNode, Object> constants = new IdentityHashMap<>();
+
+  private RuleOptimizer(RuleMakerJsonLogic jsonLogic) {
+    this.jsonLogic = jsonLogic;
+  }
+
+  /**
+   * Simplifies the syntax tree.
+   *
+   * @param node      The syntax tree, which is not changed.
+   * @param jsonLogic The operations of the rule.
+   * @return The simplified syntax tree, which evaluates like the original one.
+   */
+  static JsonLogicNode optimize(JsonLogicNode node, RuleMakerJsonLogic jsonLogic) {
+    return new RuleOptimizer(jsonLogic).visit(node);
+  }
+
+  private JsonLogicNode visit(JsonLogicNode node) {
+    switch (node.getType()) {
+      case PRIMITIVE:
+        constants.put(node, ((JsonLogicPrimitive<?>) node).getValue());
+        return node;
+
+      case ARRAY:
+        JsonLogicArray array = visitAll((JsonLogicArray) node);
+        List<Object> values = new ArrayList<>(array.size());
+        for (JsonLogicNode element : array) {
+          if (!constants.containsKey(element)) {
+            return array;
+          }
+          values.add(constants.get(element));
+        }
+        constants.put(array, values);
+        return array;
+
+      case OPERATION:
+        return visitOperation((JsonLogicOperation) node);
+
+      default:
+        return node;
+    }
+  }
+
+  private JsonLogicArray visitAll(JsonLogicArray array) {
+    List<JsonLogicNode> elements = new ArrayList<>(array.size());
+    boolean changed = false;
+    for (JsonLogicNode element : array) {
+      JsonLogicNode optimized = visit(element);
+      elements.add(optimized);
+      changed |= optimized != element;
+    }
+    return changed ? new JsonLogicArray(elements) : array;
+  }
+
+  private JsonLogicNode visitOperation(JsonLogicOperation node) {
+    JsonLogicExpression expression = jsonLogic.getExpression(node.getOperator());
+    JsonLogicArray arguments = visitAll(node.getArguments());
+    JsonLogicOperation operation = arguments != node.getArguments() ? new JsonLogicOperation(node.getOperator(), arguments) : node;
+
+    if (expression == LogicExpression.AND || expression == LogicExpression.OR) {
+      return simplifyLogic(operation, expression);
+    }
+    if (expression == IfExpression.IF || expression == IfExpression.TERNARY) {
+      return simplifyIf(operation);
+    }
+    if (expression == NotExpression.SINGLE || expression == NotExpression.DOUBLE) {
+      JsonLogicNode simplified = simplifyNot(operation, expression == NotExpression.SINGLE);
+      if (simplified != operation) {
+        return simplified;
+      }
+    }
+    if (isExactSum(expression)) {
+      operation = flattenFirst(operation, expression);
+    }
+    return isFoldable(expression) ? fold(operation) : operation;
+  }
+
+  private JsonLogicNode simplifyLogic(JsonLogicOperation operation, JsonLogicExpression expression) {
+    List<JsonLogicNode> arguments = new ArrayList<>();
+    for (JsonLogicNode argument : operation.getArguments()) {
+      if (isOperation(argument, expression) && !((JsonLogicOperation) argument).getArguments().isEmpty()) {
+        arguments.addAll(((JsonLogicOperation) argument).getArguments());
+      } else {
+        arguments.add(argument);
+      }
+    }
+    if (arguments.isEmpty()) {
+      return operation;
+    }
+
+    // The result is the first argument which is falsy for and, truthy for or, or else the last one
+    boolean isAnd = expression == LogicExpression.AND;
+    List<JsonLogicNode> remaining = new ArrayList<>();
+    for (int i = 0; i < arguments.size(); i++) {
+      JsonLogicNode argument = arguments.get(i);
+      boolean last = i == arguments.size() - 1;
+      if (!constants.containsKey(argument)) {
+        remaining.add(argument);
+      } else if (last || JsonLogic.truthy(constants.get(argument)) != isAnd) {
+        remaining.add(argument);
+        break;
+      }
+    }
+    if (remaining.size() == 1) {
+      return remaining.get(0);
+    }
+    return remaining.equals(operation.getArguments())
+      ? operation
+      : new JsonLogicOperation(operation.getOperator(), new JsonLogicArray(remaining));
+  }
+
+  private JsonLogicNode simplifyIf(JsonLogicOperation operation) {
+    JsonLogicArray arguments = operation.getArguments();
+    List<JsonLogicNode> remaining = new ArrayList<>();
+    boolean decided = false;
+    for (int i = 0; i < arguments.size() - 1 && !decided; i += 2) {
+      JsonLogicNode condition = arguments.get(i);
+      if (!constants.containsKey(condition)) {
+        remaining.add(condition);
+        remaining.add(arguments.get(i + 1));
+      } else if (JsonLogic.truthy(constants.get(condition))) {
+        // The branch is taken whenever it is reached, it is the else branch of the remaining ones
+        remaining.add(arguments.get(i + 1));
+        decided = true;
+      }
+    }
+    if (!decided && (arguments.size() & 1) == 1) {
+      remaining.add(arguments.get(arguments.size() - 1));
+    }
+
+    if (remaining.isEmpty()) {
+      return JsonLogicNull.NULL;
+    }
+    if (remaining.size() == 1) {
+      return remaining.get(0);
+    }
+    return remaining.equals(arguments) ? operation : new JsonLogicOperation(operation.getOperator(), new JsonLogicArray(remaining));
+  }
+
+  private JsonLogicNode simplifyNot(JsonLogicOperation operation, boolean negate) {
+    if (operation.getArguments().size() != 1) {
+      return operation;
+    }
+    JsonLogicNode argument = operation.getArguments().get(0);
+    if (!negate && returnsBoolean(argument)) {
+      return argument;
+    }
+    boolean negatedArgument = isOperation(argument, NotExpression.SINGLE);
+    if (!negatedArgument && !isOperation(argument, NotExpression.DOUBLE)
+      || ((JsonLogicOperation) argument).getArguments().size() != 1) {
+      return operation;
+    }
+
+    // !(!x) is !!x, !(!!x) is !x, !!(!x) is !x and !!(!!x) is !!x
+    JsonLogicNode inner = ((JsonLogicOperation) argument).getArguments().get(0);
+    if (negate == negatedArgument) {
+      return returnsBoolean(inner) ? inner : new JsonLogicOperation(NotExpression.DOUBLE.key(), new JsonLogicArray(List.of(inner)));
+    }
+    return new JsonLogicOperation(NotExpression.SINGLE.key(), new JsonLogicArray(List.of(inner)));
+  }
+
+  private JsonLogicOperation flattenFirst(JsonLogicOperation operation, JsonLogicExpression expression) {
+    JsonLogicArray arguments = operation.getArguments();
+    if (arguments.size() < 2 || !isOperation(arguments.get(0), expression)
+      || ((JsonLogicOperation) arguments.get(0)).getArguments().size() < 2) {
+      return operation;
+    }
+    List<JsonLogicNode> flattened = new ArrayList<>(((JsonLogicOperation) arguments.get(0)).getArguments());
+    flattened.addAll(arguments.subList(1, arguments.size()));
+    return new JsonLogicOperation(operation.getOperator(), new JsonLogicArray(flattened));
+  }
+
+  private JsonLogicNode fold(JsonLogicOperation operation) {
+    for (JsonLogicNode argument : operation.getArguments()) {
+      if (!constants.containsKey(argument)) {
+        return operation;
+      }
+    }
+
+    Object value;
+    try {
+      value = jsonLogic.evaluate(operation, Collections.emptyMap());
+    } catch (JsonLogicEvaluationException | RuntimeException e) {
+      // The operation fails on every evaluation, which still has to happen at runtime
+      return operation;
+    }
+    JsonLogicNode constant = toConstant(value);
+    if (constant == null) {
+      return operation;
+    }
+    constants.put(constant, value);
+    return constant;
+  }
+
+  private static JsonLogicNode toConstant(Object value) {
+    if (value == null) {
+      return JsonLogicNull.NULL;
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? JsonLogicBoolean.TRUE : JsonLogicBoolean.FALSE;
+    }
+    if (value instanceof String) {
+      return new JsonLogicString((String) value);
+    }
+    if (value instanceof Double) {
+      return new JsonLogicNumber((Double) value);
+    }
+    if (value instanceof BigDecimal) {
+      // A single argument is returned as BigDecimal by +, a string keeps its exact value and scale in every numeric mode
+      JsonLogicArray arguments = new JsonLogicArray(List.of(new JsonLogicString(value.toString())));
+      return new JsonLogicOperation(BigDecimalMathExpression.ADD.key(), arguments);
+    }
+    return null;
+  }
+
+  private boolean isOperation(JsonLogicNode node, JsonLogicExpression expression) {
+    return node instanceof JsonLogicOperation && jsonLogic.getExpression(((JsonLogicOperation) node).getOperator()) == expression;
+  }
+
+  private boolean returnsBoolean(JsonLogicNode node) {
+    if (constants.containsKey(node)) {
+      return constants.get(node) instanceof Boolean;
+    }
+    if (!(node instanceof JsonLogicOperation)) {
+      return false;
+    }
+    JsonLogicExpression expression = jsonLogic.getExpression(((JsonLogicOperation) node).getOperator());
+    return expression == NotExpression.SINGLE || expression == NotExpression.DOUBLE
+      || expression == EqualityExpression.INSTANCE || expression == InequalityExpression.INSTANCE
+      || expression == StrictEqualityExpression.INSTANCE || expression == StrictInequalityExpression.INSTANCE
+      || expression instanceof CustomNumericComparisonExpression
+      && ((CustomNumericComparisonExpression) expression).getNumberOfArguments() == ((JsonLogicOperation) node).getArguments().size();
+  }
+
+  private boolean isExactSum(JsonLogicExpression expression) {
+    return expression instanceof BigDecimalMathExpression && !jsonLogic.getNumericMode().isFast()
+      && (expression.key().equals("+") || expression.key().equals("*"));
+  }
+
+  /**
+   * Checks if the operation returns the same result for the same arguments, without looking at the data or having side effects.
+   */
+  private static boolean isFoldable(JsonLogicExpression expression) {
+    return expression instanceof BigDecimalMathExpression || expression instanceof CustomNumericComparisonExpression
+      || expression == NotExpression.SINGLE || expression == NotExpression.DOUBLE
+      || expression == EqualityExpression.INSTANCE || expression == InequalityExpression.INSTANCE
+      || expression == StrictEqualityExpression.INSTANCE || expression == StrictInequalityExpression.INSTANCE
+      || expression == InExpression.INSTANCE || expression == ConcatenateExpression.INSTANCE
+      || expression == SubstringExpression.INSTANCE || expression == MergeExpression.INSTANCE
+      || expression == ClampExpression.INSTANCE;
+  }
+}
@@ -0,0 +1,187 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Stream stage which evaluates a compiled rule for each incoming data record and publishes a {@link Result} per record, or only for the
+ * matching records, to its subscribers.
+ *
+ * <p>Records are requested from upstream in batches of {@code batchSize}. The next batch is requested once the results of the current one
+ * have been handed to the subscribers, which blocks while a subscriber's buffer is full. A slow subscriber therefore slows down the
+ * upstream instead of letting records pile up. With an executor the records of a batch are evaluated in parallel, either publishing the
+ * results in the order of the records or as soon as they are available.
+ *
+ * <p>The first failing evaluation cancels the upstream subscription and completes the subscribers exceptionally.
+ */
+public class RuleProcessor extends SubmissionPublisher<RuleProcessor.Result>
+  implements Flow.Processor<Map<String, Object>, RuleProcessor.Result> {
+
+  public static final int DEFAULT_BATCH_SIZE = 1;
+
+  private final CompiledRule rule;
+  private final Executor executor;
+  @Getter
+  private final int batchSize;
+  @Getter
+  private final boolean ordered;
+  @Getter
+  private final boolean matchesOnly;
+  private final List<Map<String, Object>> batch;
+  private Flow.Subscription subscription;
+
+  /**
+   * Creates the stream stage, unset values fall back to their defaults.
+   *
+   * @param rule        The rule to evaluate for each record.
+   * @param executor    The executor which evaluates the records of a batch in parallel, by default they are evaluated sequentially by the
+   *                    thread delivering the records.
+   * @param batchSize   The number of records requested from upstream at once, {@value #DEFAULT_BATCH_SIZE} by default.
+   * @param ordered     Whether results of parallel evaluations are published in the order of the records, true by default.
+   * @param matchesOnly Whether to publish only the results which are truthy instead of all results, false by default.
+   */
+  @Builder
+  private RuleProcessor(@NonNull CompiledRule rule, Executor executor, Integer batchSize, Boolean ordered, Boolean matchesOnly) {
+    if (batchSize != null && batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    this.rule = rule;
+    this.executor = executor;
+    this.batchSize = batchSize != null ? batchSize : DEFAULT_BATCH_SIZE;
+    this.ordered = ordered == null || ordered;
+    this.matchesOnly = matchesOnly != null && matchesOnly;
+    this.batch = new ArrayList<>(this.batchSize);
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    if (this.subscription != null) {
+      subscription.cancel();
+      return;
+    }
+    this.subscription = subscription;
+    subscription.request(batchSize);
+  }
+
+  @Override
+  public void onNext(Map<String, Object> data) {
+    if (isClosed()) {
+      return;
+    }
+    batch.add(data);
+    if (batch.size() == batchSize && publishBatch()) {
+      subscription.request(batchSize);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    closeExceptionally(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    if (!isClosed() && publishBatch()) {
+      close();
+    }
+  }
+
+  /**
+   * Evaluates the current batch and publishes its results.
+   *
+   * @return true if the batch has been published; false if an evaluation failed and the stage has been closed.
+   */
+  private boolean publishBatch() {
+    try {
+      if (executor == null) {
+        for (Map<String, Object> data : batch) {
+          publish(new Result(data, rule.evaluate(data)));
+        }
+      } else if (ordered) {
+        publishOrdered();
+      } else {
+        publishUnordered();
+      }
+      return true;
+    } catch (RuntimeException e) {
+      subscription.cancel();
+      closeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+      return false;
+    } finally {
+      batch.clear();
+    }
+  }
+
+  private void publishOrdered() {
+    List<CompletableFuture<Result>> results = new ArrayList<>(batch.size());
+    for (Map<String, Object> data : batch) {
+      results.add(CompletableFuture.supplyAsync(() -> new Result(data, rule.evaluate(data)), executor));
+    }
+    for (CompletableFuture<Result> result : results) {
+      publish(result.join());
+    }
+  }
+
+  private void publishUnordered() {
+    ExecutorCompletionService<Result> completionService = new ExecutorCompletionService<>(executor);
+    for (Map<String, Object> data : batch) {
+      completionService.submit(() -> new Result(data, rule.evaluate(data)));
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      publish(take(completionService));
+    }
+  }
+
+  private static Result take(ExecutorCompletionService<Result> completionService) {
+    try {
+      return completionService.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+  private void publish(Result result) {
+    if (!matchesOnly || result.isMatch()) {
+      submit(result);
+    }
+  }
+
+  /**
+   * The result of evaluating the rule for a record.
+   */
+  @Getter
+  public static final class Result {
+
+    private final Map<String, Object> data;
+    private final Object value;
+
+    Result(Map<String, Object> data, Object value) {
+      this.data = data;
+      this.value = value;
+    }
+
+    /**
+     * Checks if the record matches the rule.
+     *
+     * @return true if the value is truthy in the sense of JsonLogic; false otherwise.
+     */
+    public boolean isMatch() {
+      return JsonLogic.truthy(value);
+    }
+  }
+}
@@ -0,0 +1,311 @@
+package com.hlag.rulemaker;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Many rules which are evaluated together with the same input, like all surcharge rules of a booking. The rules are compiled together
+ * into one {@link Frame} layout: every variable is fetched from the input once for all rules, and subexpressions which occur in several
+ * rules, or several times in one rule, are evaluated once per input.
+ *
+ * <p>Rules which start with an equality guard like {@code and(eq(var("tradeLane"), literal("ASIA-EU")), ...)} are indexed by the literal
+ * of their guard, rules which start with a range guard like {@code lteLt(literal(10000), var("cargo.weight"), literal(20000))} by the
+ * boundaries of their band. Only the rules whose guard matches the input are evaluated, the others are false without evaluating them.
+ *
+ * <p>The rules are evaluated by closures, whatever the engine of the {@link RuleMakerJsonLogic}. A rule set is immutable and can be shared
+ * between threads.
+ */
+public class RuleSet {
+
+  @Getter
+  private final List<String> ids;
+  private final Map<String, Integer> idIndexes;
+  private final CompiledNode[] executables;
+  private final int[][] ruleSlots;
+  private final SlotLayout slotLayout;
+  private final int sharedNodes;
+  private final RuleIndex ruleIndex;
+
+  /**
+   * Compiles the rules of the set in the order they were added to the builder.
+   *
+   * @param jsonLogic   The operations of the rules, the shared operations of {@link RuleMaker} by default.
+   * @param ruleIds     The ids of the rules.
+   * @param definitions The rules built with {@link RuleMaker} or as JSON expressions, by position of their id.
+   * @throws IllegalArgumentException if two rules or expressions have the same id.
+   */
+  private RuleSet(RuleMakerJsonLogic jsonLogic, List<String> ruleIds, List<Object> definitions) {
+    RuleMakerJsonLogic operations = jsonLogic != null ? jsonLogic : RuleMaker.RULE_MAKER_JSON_LOGIC;
+    Map<String, CompiledRule> compiledRules = new LinkedHashMap<>();
+    for (int i = 0; i < ruleIds.size(); i++) {
+      String id = ruleIds.get(i);
+      if (compiledRules.containsKey(id)) {
+        throw new IllegalArgumentException("Duplicate rule id '" + id + "'");
+      }
+      Object definition = definitions.get(i);
+      compiledRules.put(id, definition instanceof RuleMaker
+        ? operations.compile((RuleMaker) definition)
+        : operations.compile((String) definition));
+    }
+
+    Set<String> variables = new HashSet<>();
+    Set<String> references = new HashSet<>();
+    List<JsonLogicNode> nodes = new ArrayList<>();
+    compiledRules.values().forEach(rule -> {
+      variables.addAll(rule.getVariables());
+      references.addAll(rule.getReferences().getPaths());
+      nodes.add(rule.getNode());
+    });
+    this.ids = List.copyOf(compiledRules.keySet());
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      indexes.put(ids.get(i), i);
+    }
+    this.idIndexes = Map.copyOf(indexes);
+    this.slotLayout = new SlotLayout(variables, references);
+
+    Map<JsonLogicNode, Integer> shared = ClosureCompiler.findSharedNodes(nodes);
+    this.sharedNodes = (int) shared.values().stream().distinct().count();
+    ClosureCompiler compiler = new ClosureCompiler(operations, slotLayout.getIndexes(), shared);
+    this.executables = nodes.stream().map(compiler::compile).toArray(CompiledNode[]::new);
+    this.ruleSlots = compiledRules.values().stream()
+      .map(rule -> slotLayout.slotsOf(rule.getVariables()))
+      .toArray(int[][]::new);
+    this.ruleIndex = new RuleIndex(nodes, slotLayout, operations);
+  }
+
+  public static RuleSetBuilder builder() {
+    return new RuleSetBuilder();
+  }
+
+  /**
+   * Returns the number of rules which are indexed by an equality or a range guard.
+   *
+   * @return The number of indexed rules.
+   */
+  public int getIndexedRuleCount() {
+    return ruleIndex.getIndexedRuleCount();
+  }
+
+  /**
+   * Returns the variables of all rules in the order of their slots in a {@link Frame} of this rule set, see
+   * {@link CompiledRule#getSlots()}.
+   *
+   * @return The variables by slot index.
+   */
+  public List<String> getSlots() {
+    return slotLayout.getSlots();
+  }
+
+  /**
+   * Returns the slot of a variable in a {@link Frame} of this rule set.
+   *
+   * @param variable The variable.
+   * @return The slot index.
+   * @throws IllegalArgumentException if no rule of the set uses the variable.
+   */
+  public int slotOf(@NonNull String variable) {
+    return slotLayout.slotOf(variable);
+  }
+
+  /**
+   * Creates an empty frame for the data of an evaluation of this rule set.
+   *
+   * @return The frame with all slots unset.
+   */
+  public Frame newFrame() {
+    return new Frame(this, slotLayout, sharedNodes);
+  }
+
+  /**
+   * Evaluates all rules with the given data. Every variable is looked up in the data once.
+   *
+   * @param data The data to evaluate the rules with.
+   * @return The results by rule id.
+   */
+  public RuleSetResult evaluate(@NonNull Map<String, Object> data) {
+    return evaluate(newFrame().load(data));
+  }
+
+  /**
+   * Evaluates all rules with the data of a frame. A rule whose required variables are not all set fails with a
+   * {@link RuleMakerMissingVariablesException}, the other rules are evaluated.
+   *
+   * @param frame The frame of this rule set.
+   * @return The results by rule id.
+   */
+  public RuleSetResult evaluate(@NonNull Frame frame) {
+    if (frame.getOwner() != this) {
+      throw new IllegalArgumentException("The frame belongs to another rule set");
+    }
+    frame.resetShared();
+    Object[] values = new Object[executables.length];
+    RuntimeException[] errors = new RuntimeException[executables.length];
+    // Rules which are no candidates are false, unless their variables are missing
+    Arrays.fill(values, Boolean.FALSE);
+    boolean[] evaluated = frame.isComplete() ? null : new boolean[executables.length];
+    for (int rule : ruleIndex.findCandidates(frame)) {
+      if (evaluated != null) {
+        evaluated[rule] = true;
+      }
+      try {
+        values[rule] = evaluate(rule, frame);
+      } catch (RuntimeException e) {
+        values[rule] = null;
+        errors[rule] = e;
+      }
+    }
+    if (evaluated != null) {
+      for (int rule = 0; rule < executables.length; rule++) {
+        if (!evaluated[rule]) {
+          errors[rule] = findMissingVariables(rule, frame);
+          values[rule] = errors[rule] == null ? Boolean.FALSE : null;
+        }
+      }
+    }
+    return new RuleSetResult(ids, idIndexes, values, errors);
+  }
+
+  private Object evaluate(int rule, Frame frame) {
+    RuleMakerMissingVariablesException missingVariables = findMissingVariables(rule, frame);
+    if (missingVariables != null) {
+      throw missingVariables;
+    }
+
+    try {
+      return executables[rule].evaluate(frame);
+    } catch (JsonLogicEvaluationException e) {
+      throw new RuleMakerEvaluationException(e.getMessage(), e);
+    }
+  }
+
+  private RuleMakerMissingVariablesException findMissingVariables(int rule, Frame frame) {
+    Set<String> missingVariables = frame.findUnsetSlots(ruleSlots[rule]);
+    return missingVariables.isEmpty() ? null : new RuleMakerMissingVariablesException(missingVariables);
+  }
+
+  /**
+   * Builder of a {@link RuleSet}. Rules and expressions are kept in the order they are added, an id which is added twice fails the build
+   * whichever method added it.
+   */
+  public static final class RuleSetBuilder {
+
+    private RuleMakerJsonLogic jsonLogic;
+    private final List<String> ids = new ArrayList<>();
+    private final List<Object> definitions = new ArrayList<>();
+
+    private RuleSetBuilder() {
+    }
+
+    /**
+     * Sets the operations of the rules.
+     *
+     * @param jsonLogic The operations, the shared operations of {@link RuleMaker} by default.
+     * @return This builder.
+     */
+    public RuleSetBuilder jsonLogic(RuleMakerJsonLogic jsonLogic) {
+      this.jsonLogic = jsonLogic;
+      return this;
+    }
+
+    /**
+     * Adds a rule built with {@link RuleMaker}.
+     *
+     * @param id   The id of the rule.
+     * @param rule The rule.
+     * @return This builder.
+     */
+    public RuleSetBuilder rule(@NonNull String id, @NonNull RuleMaker rule) {
+      return add(id, rule);
+    }
+
+    /**
+     * Adds rules built with {@link RuleMaker}.
+     *
+     * @param rules The rules by id.
+     * @return This builder.
+     */
+    public RuleSetBuilder rules(@NonNull Map<String, ? extends RuleMaker> rules) {
+      rules.forEach(this::rule);
+      return this;
+    }
+
+    /**
+     * Adds a rule as JSON expression.
+     *
+     * @param id         The id of the rule.
+     * @param expression The JSON expression.
+     * @return This builder.
+     */
+    public RuleSetBuilder expression(@NonNull String id, @NonNull String expression) {
+      return add(id, expression);
+    }
+
+    /**
+     * Adds rules as JSON expressions.
+     *
+     * @param expressions The JSON expressions by id.
+     * @return This builder.
+     */
+    public RuleSetBuilder expressions(@NonNull Map<String, String> expressions) {
+      expressions.forEach(this::expression);
+      return this;
+    }
+
+    /**
+     * Removes all rules built with {@link RuleMaker}.
+     *
+     * @return This builder.
+     */
+    public RuleSetBuilder clearRules() {
+      return clear(RuleMaker.class);
+    }
+
+    /**
+     * Removes all rules added as JSON expressions.
+     *
+     * @return This builder.
+     */
+    public RuleSetBuilder clearExpressions() {
+      return clear(String.class);
+    }
+
+    /**
+     * Compiles the rule set.
+     *
+     * @return The rule set.
+     * @throws IllegalArgumentException if two rules or expressions have the same id.
+     */
+    public RuleSet build() {
+      return new RuleSet(jsonLogic, List.copyOf(ids), List.copyOf(definitions));
+    }
+
+    private RuleSetBuilder add(String id, Object definition) {
+      ids.add(id);
+      definitions.add(definition);
+      return this;
+    }
+
+    private RuleSetBuilder clear(Class<?> type) {
+      for (int i = definitions.size() - 1; i >= 0; i--) {
+        if (type.isInstance(definitions.get(i))) {
+          ids.remove(i);
+          definitions.remove(i);
+        }
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.JsonLogic;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The results of evaluating a {@link RuleSet} with one input. A rule which could not be evaluated has no value, its exception is kept in
+ * {@link #getErrors()} instead of aborting the other rules.
+ */
+public class RuleSetResult {
+
+  private final List<String> ids;
+  private final Map<String, Integer> indexes;
+  private final Object[] values;
+  private final RuntimeException[] errors;
+
+  RuleSetResult(List<String> ids, Map<String, Integer> indexes, Object[] values, RuntimeException[] errors) {
+    this.ids = ids;
+    this.indexes = indexes;
+    this.values = values;
+    this.errors = errors;
+  }
+
+  /**
+   * Returns the result of a rule.
+   *
+   * @param id The id of the rule.
+   * @return The result of the evaluation, null if the rule failed or does not exist.
+   */
+  public Object get(String id) {
+    Integer index = indexes.get(id);
+    return index != null ? values[index] : null;
+  }
+
+  /**
+   * Returns the results of all rules which could be evaluated.
+   *
+   * @return The results by rule id, in the order of the rule set.
+   */
+  public Map<String, Object> getValues() {
+    Map<String, Object> valuesById = new LinkedHashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      if (errors[i] == null) {
+        valuesById.put(ids.get(i), values[i]);
+      }
+    }
+    return Collections.unmodifiableMap(valuesById);
+  }
+
+  /**
+   * Checks if a rule matches, which for predicates means that its result is truthy in the sense of JsonLogic.
+   *
+   * @param id The id of the rule.
+   * @return true if the result of the rule is truthy; false otherwise or if the rule failed.
+   */
+  public boolean matches(String id) {
+    return JsonLogic.truthy(get(id));
+  }
+
+  /**
+   * Returns the rules whose result is truthy.
+   *
+   * @return The ids of the matching rules, in the order of the rule set.
+   */
+  public List<String> getMatches() {
+    List<String> matches = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      if (errors[i] == null && JsonLogic.truthy(values[i])) {
+        matches.add(ids.get(i));
+      }
+    }
+    return Collections.unmodifiableList(matches);
+  }
+
+  /**
+   * Returns the exceptions of the rules which could not be evaluated.
+   *
+   * @return The exceptions by rule id, in the order of the rule set.
+   */
+  public Map<String, RuntimeException> getErrors() {
+    Map<String, RuntimeException> errorsById = new LinkedHashMap<>();
+    for (int i = 0; i < errors.length; i++) {
+      if (errors[i] != null) {
+        errorsById.put(ids.get(i), errors[i]);
+      }
+    }
+    return Collections.unmodifiableMap(errorsById);
+  }
+
+  public boolean hasErrors() {
+    for (RuntimeException error : errors) {
+      if (error != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
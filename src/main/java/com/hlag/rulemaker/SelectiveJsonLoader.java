@@ -0,0 +1,204 @@
+package com.hlag.rulemaker;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.NonNull;
+
+/**
+ * Pull-parses JSON documents into data maps which only contain the given variable paths. Everything else is skipped by the
+ * {@link JsonReader} without being materialized. The value at the end of a path is materialized completely, numbers become Doubles like
+ * with Gson. Array elements which no path references are kept as null, so the indexes and the size of the array stay the same.
+ *
+ * <p>A loader created for a rule, see {@link #of(CompiledRule)}, loads all data the rule references by name.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class SelectiveJsonLoader {
+
+  private final PathNode root = new PathNode();
+
+  /**
+   * Creates a loader for the data a rule references by name: its required variables, its variables with a default value and the names
+   * checked by {@code missing} and {@code missing_some}. If the rule computes a name when it is evaluated, like the key of
+   * {@code {"var":{"cat":["cargo.",{"var":"unit"}]}}}, the whole document is loaded.
+   *
+   * @param rule The rule whose data is loaded.
+   * @return The loader.
+   */
+  public static SelectiveJsonLoader of(@NonNull CompiledRule rule) {
+    DataReferences references = rule.getReferences();
+    if (references.isComputed()) {
+      return new SelectiveJsonLoader(List.of(""));
+    }
+    Set<String> paths = new HashSet<>(rule.getVariables());
+    paths.addAll(references.getPaths());
+    return new SelectiveJsonLoader(paths);
+  }
+
+  /**
+   * Creates a loader for the given variable paths. A blank variable references the whole document.
+   *
+   * @param variables The dotted variable paths to load.
+   */
+  public SelectiveJsonLoader(@NonNull Collection<String> variables) {
+    for (String variable : variables) {
+      if (variable == null || variable.isBlank()) {
+        root.complete = true;
+        continue;
+      }
+      PathNode node = root;
+      for (String key : variable.split("\\.")) {
+        node = node.child(key);
+      }
+      node.complete = true;
+    }
+  }
+
+  /**
+   * Loads the JSON object of the reader. The reader is not closed.
+   *
+   * @param reader The reader of a JSON object.
+   * @return The data map with the referenced variables.
+   * @throws IOException           if the JSON cannot be read.
+   * @throws IllegalStateException if the JSON is not an object.
+   */
+  public Map<String, Object> load(@NonNull Reader reader) throws IOException {
+    return read(new JsonReader(reader));
+  }
+
+  /**
+   * Loads the UTF-8 encoded JSON object of the stream. The stream is not closed.
+   *
+   * @param inputStream The stream of a JSON object.
+   * @return The data map with the referenced variables.
+   * @throws IOException           if the JSON cannot be read.
+   * @throws IllegalStateException if the JSON is not an object.
+   */
+  public Map<String, Object> load(@NonNull InputStream inputStream) throws IOException {
+    return load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads the next JSON object of the reader.
+   *
+   * @param reader The reader positioned before a JSON object.
+   * @return The data map with the referenced variables.
+   * @throws IOException           if the JSON cannot be read.
+   * @throws IllegalStateException if the next value is not a JSON object.
+   */
+  @SuppressWarnings("unchecked")
+  Map<String, Object> read(JsonReader reader) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new IllegalStateException("Expected a JSON object but was " + reader.peek());
+    }
+    return (Map<String, Object>) readValue(reader, root);
+  }
+
+  private static Object readValue(JsonReader reader, PathNode node) throws IOException {
+    if (node.complete) {
+      return readFully(reader);
+    }
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String name = reader.nextName();
+          PathNode child = node.children.get(name);
+          if (child == null) {
+            reader.skipValue();
+          } else {
+            map.put(name, readValue(reader, child));
+          }
+        }
+        reader.endObject();
+        return map;
+
+      case BEGIN_ARRAY:
+        List<Object> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          PathNode child = node.indexChildren.get(list.size());
+          if (child == null) {
+            reader.skipValue();
+            list.add(null);
+          } else {
+            list.add(readValue(reader, child));
+          }
+        }
+        reader.endArray();
+        return list;
+
+      default:
+        return readFully(reader);
+    }
+  }
+
+  private static Object readFully(JsonReader reader) throws IOException {
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          map.put(reader.nextName(), readFully(reader));
+        }
+        reader.endObject();
+        return map;
+
+      case BEGIN_ARRAY:
+        List<Object> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          list.add(readFully(reader));
+        }
+        reader.endArray();
+        return list;
+
+      case NUMBER:
+        return reader.nextDouble();
+
+      case BOOLEAN:
+        return reader.nextBoolean();
+
+      case NULL:
+        reader.nextNull();
+        return null;
+
+      default:
+        return reader.nextString();
+    }
+  }
+
+  /**
+   * A key of the referenced paths. A complete node is the end of a path, its value is materialized with everything below it.
+   */
+  private static final class PathNode {
+
+    private final Map<String, PathNode> children = new HashMap<>();
+    private final Map<Integer, PathNode> indexChildren = new HashMap<>();
+    private boolean complete;
+
+    private PathNode child(String key) {
+      PathNode child = children.computeIfAbsent(key, k -> new PathNode());
+      try {
+        indexChildren.put(Integer.parseInt(key), child);
+      } catch (NumberFormatException e) {
+        // Not an index, only found in objects
+      }
+      return child;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.hlag.rulemaker;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns the variables of a rule, or of a rule set, to the slots of a {@link Frame}. Slots are sorted by variable name, a blank variable
+ * references the whole frame and has no slot. The slots of required variables have to be set, the ones of optional variables, which have
+ * a default value or are checked by the {@code missing} operations, may be left unset.
+ */
+final class SlotLayout {
+
+  private final List<String> slots;
+  private final Map<String, Integer> indexes;
+  private final VariablePath[] paths;
+  private final boolean[] required;
+  private final int requiredCount;
+
+  SlotLayout(Collection<String> variables) {
+    this(variables, Set.of());
+  }
+
+  /**
+   * Creates the slots of the required and the optional variables. A variable which is both required and optional is required.
+   */
+  SlotLayout(Collection<String> requiredVariables, Collection<String> optionalVariables) {
+    Set<String> variables = new HashSet<>(requiredVariables);
+    variables.addAll(optionalVariables);
+    this.slots = variables.stream().filter(variable -> !variable.isBlank()).sorted().collect(Collectors.toUnmodifiableList());
+    Map<String, Integer> slotIndexes = new HashMap<>();
+    for (int i = 0; i < slots.size(); i++) {
+      slotIndexes.put(slots.get(i), i);
+    }
+    this.indexes = Map.copyOf(slotIndexes);
+    this.paths = slots.stream().map(VariablePath::of).toArray(VariablePath[]::new);
+    this.required = new boolean[slots.size()];
+    int count = 0;
+    for (int i = 0; i < slots.size(); i++) {
+      if (requiredVariables.contains(slots.get(i))) {
+        required[i] = true;
+        count++;
+      }
+    }
+    this.requiredCount = count;
+  }
+
+  List<String> getSlots() {
+    return slots;
+  }
+
+  Map<String, Integer> getIndexes() {
+    return indexes;
+  }
+
+  VariablePath getPath(int slot) {
+    return paths[slot];
+  }
+
+  int size() {
+    return slots.size();
+  }
+
+  boolean isRequired(int slot) {
+    return required[slot];
+  }
+
+  int getRequiredCount() {
+    return requiredCount;
+  }
+
+  /**
+   * Returns the slots of the given variables, blank variables have none.
+   */
+  int[] slotsOf(Collection<String> variables) {
+    return variables.stream().filter(variable -> !variable.isBlank()).mapToInt(this::slotOf).toArray();
+  }
+
+  int slotOf(String variable) {
+    Integer slot = indexes.get(variable);
+    if (slot == null) {
+      throw new IllegalArgumentException("No slot for variable '" + variable + "'");
+    }
+    return slot;
+  }
+}
@@ -0,0 +1,128 @@
+package com.hlag.rulemaker;
+
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluator;
+import io.github.jamsesso.jsonlogic.utils.ArrayLike;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * The path of a variable like "person.addresses.0.city", split once into its keys. Keys which are numbers are also kept as list indexes,
+ * so checking whether the variable is present and looking up its value are plain walks through maps and lists.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+final class VariablePath {
+
+  private static final int NOT_AN_INDEX = Integer.MIN_VALUE;
+
+  @Getter
+  private final String path;
+  private final boolean blank;
+  private final String[] keys;
+  private final int[] indexes;
+
+  private VariablePath(String path) {
+    this.path = path;
+    this.blank = path == null || path.isBlank();
+    this.keys = path == null ? new String[0] : path.split("\\.");
+    this.indexes = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      indexes[i] = parseIndex(keys[i]);
+    }
+  }
+
+  /**
+   * Compiles the path of a variable.
+   *
+   * @param path The variable, possibly a nested property like "person.firstName".
+   * @return The compiled path.
+   */
+  static VariablePath of(String path) {
+    return new VariablePath(path);
+  }
+
+  private static int parseIndex(String key) {
+    try {
+      return Integer.parseInt(key);
+    } catch (NumberFormatException e) {
+      return NOT_AN_INDEX;
+    }
+  }
+
+  /**
+   * Checks if the variable is present in the data. A blank variable refers to the data itself and is always present, a property which is
+   * present with a null value counts as present.
+   *
+   * @param data The data where the variable is looked up.
+   * @return true if the variable is present in the data; false otherwise.
+   */
+  boolean isPresent(Object data) {
+    if (blank) {
+      return true;
+    }
+    Object current = data;
+    for (int i = 0; i < keys.length; i++) {
+      boolean last = i == keys.length - 1;
+      if (current instanceof Map) {
+        Map<?, ?> map = (Map<?, ?>) current;
+        if (last) {
+          return map.containsKey(keys[i]);
+        }
+        current = map.get(keys[i]);
+      } else if (current != null && ArrayLike.isEligible(current)) {
+        List<?> list = current instanceof List ? (List<?>) current : new ArrayLike(current);
+        if (indexes[i] < 0 || indexes[i] >= list.size()) {
+          return false;
+        }
+        if (last) {
+          return true;
+        }
+        current = list.get(indexes[i]);
+      } else {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Looks up the value of the variable the same way as the JsonLogic evaluator does for a non-empty key.
+   *
+   * @param data The data where the variable is looked up.
+   * @return The value of the variable, or null if it is not present.
+   * @throws JsonLogicEvaluationException if a key of the path is not a number but has to be used as an index.
+   */
+  Object lookup(Object data) throws JsonLogicEvaluationException {
+    Object current = data;
+    for (int i = 0; i < keys.length && current != null; i++) {
+      if (ArrayLike.isEligible(current)) {
+        List<?> list = current instanceof List ? (List<?>) current : new ArrayLike(current);
+        int index = index(i);
+        current = index < 0 || index >= list.size() ? null : JsonLogicEvaluator.transform(list.get(index));
+      } else if (current instanceof Map) {
+        current = JsonLogicEvaluator.transform(((Map<?, ?>) current).get(keys[i]));
+      } else {
+        current = null;
+      }
+    }
+    return current;
+  }
+
+  private int index(int i) throws JsonLogicEvaluationException {
+    if (indexes[i] != NOT_AN_INDEX) {
+      return indexes[i];
+    }
+    try {
+      return Integer.parseInt(keys[i]);
+    } catch (NumberFormatException e) {
+      throw new JsonLogicEvaluationException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+}
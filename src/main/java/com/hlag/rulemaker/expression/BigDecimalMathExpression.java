@@ -2,22 +2,29 @@ package com.hlag.rulemaker.expression;
 
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.List;
 import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+import lombok.Getter;
+import lombok.NonNull;
 
 public class BigDecimalMathExpression extends NumericExpression {
 
-  public static final BigDecimalMathExpression ADD = new BigDecimalMathExpression("+", BigDecimal::add);
-  public static final BigDecimalMathExpression SUBTRACT = new BigDecimalMathExpression("-", BigDecimal::subtract, 2);
-  public static final BigDecimalMathExpression MULTIPLY = new BigDecimalMathExpression("*", BigDecimal::multiply);
-  public static final BigDecimalMathExpression DIVIDE = new BigDecimalMathExpression("/", BigDecimal::divide, 2);
-  public static final BigDecimalMathExpression MODULO = new BigDecimalMathExpression("%", BigDecimal::remainder, 2);
-  public static final BigDecimalMathExpression MIN = new BigDecimalMathExpression("min", BigDecimal::min);
-  public static final BigDecimalMathExpression MAX = new BigDecimalMathExpression("max", BigDecimal::max);
+  public static final BigDecimalMathExpression ADD = new BigDecimalMathExpression("+", Operation.ADD, 0, NumericMode.EXACT);
+  public static final BigDecimalMathExpression SUBTRACT = new BigDecimalMathExpression("-", Operation.SUBTRACT, 2, NumericMode.EXACT);
+  public static final BigDecimalMathExpression MULTIPLY = new BigDecimalMathExpression("*", Operation.MULTIPLY, 0, NumericMode.EXACT);
+  public static final BigDecimalMathExpression DIVIDE = new BigDecimalMathExpression("/", Operation.DIVIDE, 2, NumericMode.EXACT);
+  public static final BigDecimalMathExpression MODULO = new BigDecimalMathExpression("%", Operation.MODULO, 2, NumericMode.EXACT);
+  public static final BigDecimalMathExpression MIN = new BigDecimalMathExpression("min", Operation.MIN, 0, NumericMode.EXACT);
+  public static final BigDecimalMathExpression MAX = new BigDecimalMathExpression("max", Operation.MAX, 0, NumericMode.EXACT);
 
   private final String key;
   private final BinaryOperator<BigDecimal> reducer;
+  private final Operation operation;
   private final int maxArguments;
+  @Getter
+  private final NumericMode numericMode;
 
   public BigDecimalMathExpression(String key, BinaryOperator<BigDecimal> reducer) {
     this(key, reducer, 0);
@@ -26,7 +33,32 @@ public class BigDecimalMathExpression extends NumericExpression {
   public BigDecimalMathExpression(String key, BinaryOperator<BigDecimal> reducer, int maxArguments) {
     this.key = key;
     this.reducer = reducer;
+    this.operation = null;
     this.maxArguments = maxArguments;
+    this.numericMode = NumericMode.EXACT;
+  }
+
+  private BigDecimalMathExpression(String key, Operation operation, int maxArguments, NumericMode numericMode) {
+    MathContext mathContext = numericMode.getMathContext();
+    this.key = key;
+    this.reducer = (left, right) -> operation.apply(left, right, mathContext);
+    this.operation = operation;
+    this.maxArguments = maxArguments;
+    this.numericMode = numericMode;
+  }
+
+  /**
+   * Returns this operation calculating in the given numeric mode. Operations created with a custom reducer always calculate exactly with
+   * their reducer and are returned unchanged.
+   *
+   * @param numericMode The numeric mode to calculate in.
+   * @return The operation in the given numeric mode.
+   */
+  public BigDecimalMathExpression withNumericMode(@NonNull NumericMode numericMode) {
+    if (operation == null || this.numericMode.equals(numericMode)) {
+      return this;
+    }
+    return new BigDecimalMathExpression(key, operation, maxArguments, numericMode);
   }
 
   @Override
@@ -36,6 +68,13 @@ public class BigDecimalMathExpression extends NumericExpression {
 
   @Override
   public Object evaluate(List arguments, Object data) throws JsonLogicEvaluationException {
+    if (numericMode.isFast() && operation != null) {
+      Number result = evaluateFast(arguments);
+      if (result != null) {
+        return result;
+      }
+    }
+
     BigDecimal[] values = parseArguments(arguments);
     BigDecimal accumulator = values[0];
 
@@ -45,7 +84,7 @@ public class BigDecimalMathExpression extends NumericExpression {
       }
 
       if (key.equals("-")) {
-        return BigDecimal.valueOf(-1).multiply(accumulator);
+        return BigDecimal.valueOf(-1).multiply(accumulator, numericMode.getMathContext());
       }
 
       throw new JsonLogicEvaluationException("Minimum 2 arguments required");
@@ -61,4 +100,163 @@ public class BigDecimalMathExpression extends NumericExpression {
 
     return accumulator;
   }
+
+  /**
+   * Calculates with long if the operation and all arguments are integral, with double otherwise. Integral values include integral
+   * Doubles, which is how all numbers of the data and of literals arrive, and the result is always a Double like them.
+   *
+   * @return The result, or null if the arguments or the result need the exact calculation.
+   */
+  private Number evaluateFast(List<?> arguments) {
+    int size = arguments.size();
+    boolean unary = size == 1 && (operation == Operation.ADD || operation == Operation.SUBTRACT);
+    if (size == 0 || size == 1 && !unary || maxArguments != 0 && size > maxArguments) {
+      return null;
+    }
+
+    boolean integral = operation.isIntegral();
+    boolean exactDouble = true;
+    for (int i = 0; i < size; i++) {
+      Object argument = arguments.get(i);
+      integral &= isExactLong(argument);
+      exactDouble &= isExactDouble(argument);
+    }
+
+    if (integral) {
+      try {
+        long accumulator = ((Number) arguments.get(0)).longValue();
+        if (unary) {
+          accumulator = operation == Operation.SUBTRACT ? -accumulator : accumulator;
+        }
+        for (int i = 1; i < size; i++) {
+          accumulator = operation.apply(accumulator, ((Number) arguments.get(i)).longValue());
+        }
+        // A result which a double cannot represent exactly is calculated exactly
+        return isExactLong(accumulator) ? Double.valueOf(accumulator) : null;
+      } catch (ArithmeticException e) {
+        // Overflow or division by zero, the exact calculation decides
+        return null;
+      }
+    }
+
+    if (exactDouble) {
+      double accumulator = ((Number) arguments.get(0)).doubleValue();
+      if (unary) {
+        return operation == Operation.SUBTRACT ? -accumulator : accumulator;
+      }
+      for (int i = 1; i < size; i++) {
+        accumulator = operation.apply(accumulator, ((Number) arguments.get(i)).doubleValue());
+      }
+      return Double.isFinite(accumulator) ? accumulator : null;
+    }
+    return null;
+  }
+
+  private enum Operation {
+    ADD(Math::addExact) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.add(right, mathContext);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return left + right;
+      }
+    },
+
+    SUBTRACT(Math::subtractExact) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.subtract(right, mathContext);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return left - right;
+      }
+    },
+
+    MULTIPLY(Math::multiplyExact) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.multiply(right, mathContext);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return left * right;
+      }
+    },
+
+    // Divisions are calculated with double, an integral result would depend on the arguments
+    DIVIDE(null) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.divide(right, mathContext);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return left / right;
+      }
+    },
+
+    MODULO((left, right) -> left % right) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.remainder(right, mathContext);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return left % right;
+      }
+    },
+
+    MIN(Math::min) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.min(right);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return Math.min(left, right);
+      }
+    },
+
+    MAX(Math::max) {
+      @Override
+      BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        return left.max(right);
+      }
+
+      @Override
+      double apply(double left, double right) {
+        return Math.max(left, right);
+      }
+    };
+
+    /**
+     * The calculation with long, which throws an ArithmeticException on overflow, or null if the operation is not integral.
+     */
+    private final LongBinaryOperator longOperator;
+
+    Operation(LongBinaryOperator longOperator) {
+      this.longOperator = longOperator;
+    }
+
+    boolean isIntegral() {
+      return longOperator != null;
+    }
+
+    long apply(long left, long right) {
+      return longOperator.applyAsLong(left, right);
+    }
+
+    abstract BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mathContext);
+
+    abstract double apply(double left, double right);
+  }
 }
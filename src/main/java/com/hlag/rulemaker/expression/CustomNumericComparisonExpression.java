@@ -3,6 +3,7 @@ package com.hlag.rulemaker.expression;
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import java.math.BigDecimal;
 import java.util.List;
+import lombok.Getter;
 
 public class CustomNumericComparisonExpression extends NumericExpression {
 
@@ -17,6 +18,7 @@ public class CustomNumericComparisonExpression extends NumericExpression {
   public static final CustomNumericComparisonExpression LT_LT = new CustomNumericComparisonExpression("< <", 3);
 
   private final String key;
+  @Getter
   private final int numberOfArguments;
 
   private CustomNumericComparisonExpression(String key, int numberOfArguments) {
@@ -35,35 +37,93 @@ public class CustomNumericComparisonExpression extends NumericExpression {
       throw new JsonLogicEvaluationException("Exactly " + numberOfArguments + " arguments required");
     }
 
-    BigDecimal[] values = parseArguments(arguments);
+    return compareArguments(arguments);
+  }
+
+  /**
+   * Compares evaluated arguments. Integral arguments are compared as long and finite Doubles as double, all other arguments as BigDecimal.
+   * The result is always the one of the BigDecimal comparison.
+   *
+   * @param arguments The evaluated arguments, exactly {@link #getNumberOfArguments()} of them.
+   * @return The result of the comparison.
+   * @throws JsonLogicEvaluationException if an argument is not numeric or the key is not a comparison.
+   */
+  public boolean compareArguments(List<?> arguments) throws JsonLogicEvaluationException {
+    int size = arguments.size();
+    boolean integral = true;
+    boolean exactDouble = true;
+    for (int i = 0; i < size; i++) {
+      Object argument = arguments.get(i);
+      integral &= isIntegral(argument);
+      exactDouble &= isExactDouble(argument);
+    }
+
+    if (integral) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = ((Number) arguments.get(i)).longValue();
+      }
+      return compare((left, right) -> Long.compare(values[left], values[right]));
+    }
+    if (exactDouble) {
+      double[] values = new double[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = ((Number) arguments.get(i)).doubleValue();
+      }
+      // Not Double.compare, -0.0 and 0.0 are equal as BigDecimal
+      return compare((left, right) -> values[left] < values[right] ? -1 : values[left] > values[right] ? 1 : 0);
+    }
+    return compare(parseArguments(arguments));
+  }
+
+  /**
+   * Compares already parsed arguments.
+   *
+   * @param values The parsed arguments, exactly {@link #getNumberOfArguments()} of them.
+   * @return The result of the comparison.
+   * @throws JsonLogicEvaluationException if the key is not a comparison.
+   */
+  public boolean compare(BigDecimal[] values) throws JsonLogicEvaluationException {
+    return compare((left, right) -> values[left].compareTo(values[right]));
+  }
 
+  private boolean compare(IndexComparator values) throws JsonLogicEvaluationException {
     switch (key) {
       case "<":
-        return values[0].compareTo(values[1]) < 0;
+        return values.compare(0, 1) < 0;
 
       case "<=":
-        return values[0].compareTo(values[1]) <= 0;
+        return values.compare(0, 1) <= 0;
 
       case ">":
-        return values[0].compareTo(values[1]) > 0;
+        return values.compare(0, 1) > 0;
 
       case ">=":
-        return values[0].compareTo(values[1]) >= 0;
+        return values.compare(0, 1) >= 0;
 
       case "<= <":
-        return values[1].compareTo(values[0]) >= 0 && values[1].compareTo(values[2]) < 0;
+        return values.compare(1, 0) >= 0 && values.compare(1, 2) < 0;
 
       case "< <=":
-        return values[1].compareTo(values[0]) > 0 && values[1].compareTo(values[2]) <= 0;
+        return values.compare(1, 0) > 0 && values.compare(1, 2) <= 0;
 
       case "<= <=":
-        return values[1].compareTo(values[0]) >= 0 && values[1].compareTo(values[2]) <= 0;
+        return values.compare(1, 0) >= 0 && values.compare(1, 2) <= 0;
 
       case "< <":
-        return values[1].compareTo(values[0]) > 0 && values[1].compareTo(values[2]) < 0;
+        return values.compare(1, 0) > 0 && values.compare(1, 2) < 0;
 
       default:
         throw new JsonLogicEvaluationException("'" + key + "' is not a comparison expression");
     }
   }
+
+  /**
+   * Compares the arguments at two positions, like {@link Comparable#compareTo(Object)}.
+   */
+  @FunctionalInterface
+  private interface IndexComparator {
+
+    int compare(int left, int right);
+  }
 }
@@ -1,21 +1,25 @@
 package com.hlag.rulemaker.expression;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import io.github.jamsesso.jsonlogic.evaluator.expressions.PreEvaluatedArgumentsExpression;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import lombok.NoArgsConstructor;
+import java.util.Map;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Date diff expression that represents difference between two dates in Days.
  */
 @Slf4j
-@NoArgsConstructor
 public class DateDiffExpression implements PreEvaluatedArgumentsExpression {
 
   public static final DateDiffExpression INSTANCE = new DateDiffExpression();
@@ -23,6 +27,38 @@ public class DateDiffExpression implements PreEvaluatedArgumentsExpression {
   private static final int DATE_NOW_INDEX = 1;
   private static final int MEASURING_RULE_INDEX = 2;
   private static final int MEASURING_POINT_DATE_INDEX = 0;
+  // 1970-01-01, epoch day 0, is a Thursday, so the Monday of its week is epoch day -3
+  private static final long EPOCH_DAY_OF_FIRST_MONDAY = -3;
+  private static final int PARSED_DATES_MAXIMUM_SIZE = 1_024;
+  // Rules applied to a batch mostly share their reference dates, so the same strings are parsed again and again
+  private static final Cache<String, Long> PARSED_DATES = CacheBuilder.newBuilder().maximumSize(PARSED_DATES_MAXIMUM_SIZE).build();
+
+  private final Map<String, HolidayCalendar> holidayCalendars;
+
+  public DateDiffExpression() {
+    this(Map.of());
+  }
+
+  private DateDiffExpression(Map<String, HolidayCalendar> holidayCalendars) {
+    this.holidayCalendars = holidayCalendars;
+  }
+
+  /**
+   * Returns a date diff expression which knows the given holiday calendars in addition to the ones of this expression.
+   *
+   * @param calendars The holiday calendars, referenced by their id.
+   * @return The date diff expression.
+   */
+  public DateDiffExpression withHolidayCalendars(@NonNull Collection<HolidayCalendar> calendars) {
+    if (calendars.isEmpty()) {
+      return this;
+    }
+    Map<String, HolidayCalendar> allCalendars = new HashMap<>(holidayCalendars);
+    for (HolidayCalendar calendar : calendars) {
+      allCalendars.put(calendar.getId(), calendar);
+    }
+    return new DateDiffExpression(Map.copyOf(allCalendars));
+  }
 
   @Override
   public String key() {
@@ -37,20 +73,64 @@ public class DateDiffExpression implements PreEvaluatedArgumentsExpression {
         "dateDiffExpression expects exactly 3 arguments: dateTo(YYYY-MM-DD), dateNow(YYYY-MM-DD), measuringRule"
       );
     }
-    LocalDate dateNow = extractDate(arguments.get(DATE_NOW_INDEX).toString());
-    LocalDate measuringPointDate = extractDate(arguments.get(MEASURING_POINT_DATE_INDEX).toString());
+    long dateNow = toEpochDay(arguments.get(DATE_NOW_INDEX));
+    long measuringPointDate = toEpochDay(arguments.get(MEASURING_POINT_DATE_INDEX));
 
-    DayType measuringRule = DayType.fromValue(arguments.get(MEASURING_RULE_INDEX).toString());
+    String measuringRuleValue = arguments.get(MEASURING_RULE_INDEX).toString();
+    int separatorIndex = measuringRuleValue.indexOf(DayType.CALENDAR_SEPARATOR);
+    DayType measuringRule = DayType.fromValue(separatorIndex < 0 ? measuringRuleValue : measuringRuleValue.substring(0, separatorIndex));
+    HolidayCalendar holidayCalendar = separatorIndex < 0
+      ? null
+      : findHolidayCalendar(measuringRule, measuringRuleValue.substring(separatorIndex + 1));
 
     long dateDiff = 0L;
     if (measuringRule.equals(DayType.CALENDAR_DAYS)) {
-      dateDiff = ChronoUnit.DAYS.between(dateNow, measuringPointDate);
+      dateDiff = measuringPointDate - dateNow;
     } else if (measuringRule.equals(DayType.BUSINESS_DAYS)) {
-      dateDiff = daysWithoutWeekend(dateNow, measuringPointDate);
+      dateDiff = businessDays(dateNow, measuringPointDate, holidayCalendar);
     }
     return dateDiff;
   }
 
+  private HolidayCalendar findHolidayCalendar(DayType measuringRule, String calendarId) {
+    if (measuringRule != DayType.BUSINESS_DAYS) {
+      throw new IllegalArgumentException("Only " + DayType.BUSINESS_DAYS.getValue() + " can reference a holiday calendar");
+    }
+    HolidayCalendar holidayCalendar = holidayCalendars.get(calendarId);
+    if (holidayCalendar == null) {
+      throw new IllegalArgumentException("Unknown holiday calendar '" + calendarId + "'");
+    }
+    return holidayCalendar;
+  }
+
+  /**
+   * Converts a date argument to its epoch day. Dates can be given as ISO date string (YYYY-MM-DD), as {@link LocalDate} or other
+   * {@code java.time} value with a date, or as integral epoch day number.
+   */
+  private static long toEpochDay(Object date) {
+    if (date instanceof LocalDate) {
+      return ((LocalDate) date).toEpochDay();
+    }
+    if (date instanceof TemporalAccessor && ((TemporalAccessor) date).isSupported(ChronoField.EPOCH_DAY)) {
+      return ((TemporalAccessor) date).getLong(ChronoField.EPOCH_DAY);
+    }
+    if (date instanceof Number) {
+      double epochDay = ((Number) date).doubleValue();
+      if (epochDay != Math.rint(epochDay) || Double.isInfinite(epochDay)) {
+        throw new IllegalArgumentException("Wrong date as argument: " + date);
+      }
+      return (long) epochDay;
+    }
+
+    String dateAsString = date.toString();
+    Long epochDay = PARSED_DATES.getIfPresent(dateAsString);
+    if (epochDay == null) {
+      epochDay = extractDate(dateAsString).toEpochDay();
+      PARSED_DATES.put(dateAsString, epochDay);
+    }
+    return epochDay;
+  }
+
   private static LocalDate extractDate(String dateAsString) {
     try {
       return LocalDate.parse(dateAsString, formatter);
@@ -59,18 +139,23 @@ public class DateDiffExpression implements PreEvaluatedArgumentsExpression {
     }
   }
 
-  private long daysWithoutWeekend(LocalDate start, LocalDate end) {
-    long daysWithoutWeekends = 0;
-
-    for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
-      if (isDayOfWeek(date.getDayOfWeek())) {
-        daysWithoutWeekends++;
-      }
+  /**
+   * Counts the business days from the start until the end day, exclusive. Business days are the days from Monday to Friday which are
+   * no holidays of the calendar.
+   */
+  private static long businessDays(long startEpochDay, long endEpochDay, HolidayCalendar holidayCalendar) {
+    if (endEpochDay <= startEpochDay) {
+      return 0;
     }
-    return daysWithoutWeekends;
+    long businessDays = weekdaysBefore(endEpochDay) - weekdaysBefore(startEpochDay);
+    return holidayCalendar == null ? businessDays : businessDays - holidayCalendar.countHolidays(startEpochDay, endEpochDay);
   }
 
-  private boolean isDayOfWeek(DayOfWeek dayOfWeek) {
-    return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+  /**
+   * Counts the days from Monday to Friday from the first Monday before the epoch until the given day, exclusive.
+   */
+  private static long weekdaysBefore(long epochDay) {
+    long days = epochDay - EPOCH_DAY_OF_FIRST_MONDAY;
+    return Math.floorDiv(days, 7) * 5 + Math.min(Math.floorMod(days, 7), 5);
   }
 }
@@ -1,7 +1,12 @@
 package com.hlag.rulemaker.expression;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.ToString;
 
 @ToString
@@ -13,14 +18,34 @@ public enum DayType {
 
   BUSINESS_DAYS("BUSINESS_DAYS");
 
+  /**
+   * Separates the day type from the id of a holiday calendar, like "BUSINESS_DAYS:DEHAM".
+   */
+  public static final char CALENDAR_SEPARATOR = ':';
+
+  private static final Map<String, DayType> BY_VALUE = Arrays.stream(values())
+    .collect(Collectors.toUnmodifiableMap(DayType::getValue, Function.identity()));
+
   private final String value;
 
+  /**
+   * Returns the value of this day type which references a holiday calendar. Holidays of the calendar are no business days.
+   *
+   * @param calendarId The id of the {@link HolidayCalendar}.
+   * @return The value referencing the holiday calendar, like "BUSINESS_DAYS:DEHAM".
+   */
+  public String withCalendar(@NonNull String calendarId) {
+    if (this != BUSINESS_DAYS) {
+      throw new IllegalArgumentException("Only " + BUSINESS_DAYS.value + " can reference a holiday calendar");
+    }
+    return value + CALENDAR_SEPARATOR + calendarId;
+  }
+
   public static DayType fromValue(String text) {
-    for (DayType dayType : DayType.values()) {
-      if (String.valueOf(dayType.value).equals(text)) {
-        return dayType;
-      }
+    DayType dayType = text == null ? null : BY_VALUE.get(text);
+    if (dayType == null) {
+      throw new IllegalArgumentException("Unexpected value '" + text + "'");
     }
-    throw new IllegalArgumentException("Unexpected value '" + text + "'");
+    return dayType;
   }
 }
@@ -0,0 +1,89 @@
+package com.hlag.rulemaker.expression;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Holidays of a port or country which are not business days. The holidays are precomputed into prefix sums over epoch days, so counting
+ * the holidays between two dates takes constant time. Holidays on a weekend are ignored, these days are no business days anyway.
+ *
+ * <p>A business day difference uses a calendar when its day type references the calendar id, see {@link DayType#withCalendar(String)}.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class HolidayCalendar {
+
+  @Getter
+  @ToString.Include
+  private final String id;
+  private final long firstEpochDay;
+  // holidaysBefore[i] is the number of holidays from firstEpochDay until firstEpochDay + i, exclusive
+  private final int[] holidaysBefore;
+
+  private HolidayCalendar(String id, long firstEpochDay, int[] holidaysBefore) {
+    this.id = id;
+    this.firstEpochDay = firstEpochDay;
+    this.holidaysBefore = holidaysBefore;
+  }
+
+  /**
+   * Creates a holiday calendar.
+   *
+   * @param id       The id which day types reference the calendar with.
+   * @param holidays The holidays, duplicates and holidays on a weekend are ignored.
+   * @return The holiday calendar.
+   */
+  public static HolidayCalendar of(@NonNull String id, @NonNull Collection<LocalDate> holidays) {
+    if (id.isBlank() || id.indexOf(DayType.CALENDAR_SEPARATOR) >= 0) {
+      throw new IllegalArgumentException("Invalid holiday calendar id '" + id + "'");
+    }
+    if (holidays.isEmpty()) {
+      return new HolidayCalendar(id, 0, new int[]{0});
+    }
+
+    long first = Long.MAX_VALUE;
+    long last = Long.MIN_VALUE;
+    for (LocalDate holiday : holidays) {
+      first = Math.min(first, holiday.toEpochDay());
+      last = Math.max(last, holiday.toEpochDay());
+    }
+
+    boolean[] isHoliday = new boolean[Math.toIntExact(last - first + 1)];
+    for (LocalDate holiday : holidays) {
+      if (holiday.getDayOfWeek() != DayOfWeek.SATURDAY && holiday.getDayOfWeek() != DayOfWeek.SUNDAY) {
+        isHoliday[(int) (holiday.toEpochDay() - first)] = true;
+      }
+    }
+
+    int[] holidaysBefore = new int[isHoliday.length + 1];
+    for (int i = 0; i < isHoliday.length; i++) {
+      holidaysBefore[i + 1] = holidaysBefore[i] + (isHoliday[i] ? 1 : 0);
+    }
+    return new HolidayCalendar(id, first, holidaysBefore);
+  }
+
+  /**
+   * Counts the holidays on business days from the start until the end day, exclusive.
+   *
+   * @param startEpochDay The first day, as epoch day.
+   * @param endEpochDay   The day after the last day, as epoch day.
+   * @return The number of holidays, 0 if the end is not after the start.
+   */
+  long countHolidays(long startEpochDay, long endEpochDay) {
+    if (endEpochDay <= startEpochDay) {
+      return 0;
+    }
+    return holidaysBefore(endEpochDay) - holidaysBefore(startEpochDay);
+  }
+
+  private int holidaysBefore(long epochDay) {
+    long index = epochDay - firstEpochDay;
+    if (index <= 0) {
+      return 0;
+    }
+    return holidaysBefore[(int) Math.min(index, holidaysBefore.length - 1)];
+  }
+}
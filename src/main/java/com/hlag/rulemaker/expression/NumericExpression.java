@@ -7,26 +7,88 @@ import java.util.List;
 
 public abstract class NumericExpression implements PreEvaluatedArgumentsExpression {
 
+  // Every long of at most this magnitude is exactly representable as double
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
   protected BigDecimal[] parseArguments(List<?> arguments) throws JsonLogicEvaluationException {
     int amountOfArguments = arguments.size();
     BigDecimal[] values = new BigDecimal[amountOfArguments];
 
     for (int i = 0; i < amountOfArguments; i++) {
-      Object value = arguments.get(i);
-
-      if (value instanceof String) {
-        try {
-          values[i] = new BigDecimal((String) value);
-        } catch (NumberFormatException e) {
-          throw new JsonLogicEvaluationException("Non numeric argument: " + value);
-        }
-      } else if (!(value instanceof Number)) {
+      values[i] = toBigDecimal(arguments.get(i));
+    }
+
+    return values;
+  }
+
+  /**
+   * Converts a single evaluated argument the same way as {@link #parseArguments(List)} does.
+   *
+   * @param value The evaluated argument.
+   * @return The argument as BigDecimal.
+   * @throws JsonLogicEvaluationException if the argument is not numeric.
+   */
+  public static BigDecimal toBigDecimal(Object value) throws JsonLogicEvaluationException {
+    if (value instanceof String) {
+      try {
+        return new BigDecimal((String) value);
+      } catch (NumberFormatException e) {
         throw new JsonLogicEvaluationException("Non numeric argument: " + value);
-      } else {
-        values[i] = new BigDecimal(value.toString());
       }
+    } else if (!(value instanceof Number)) {
+      throw new JsonLogicEvaluationException("Non numeric argument: " + value);
+    } else if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (isIntegral(value)) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    } else if (value instanceof Double) {
+      // Same as new BigDecimal(value.toString()), including the scale
+      return BigDecimal.valueOf((Double) value);
+    } else {
+      return new BigDecimal(value.toString());
     }
+  }
 
-    return values;
+  /**
+   * Checks if the argument is an Integer, Long, Short or Byte, which are compared as long without changing the result.
+   *
+   * @param value The evaluated argument.
+   * @return true if the argument is integral; false otherwise.
+   */
+  static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  /**
+   * Checks if the argument is an integral value which both long and double represent exactly, either an integral Double or an Integer,
+   * Long, Short or Byte, of at most 2^53 in magnitude.
+   *
+   * @param value The evaluated argument.
+   * @return true if the argument can be calculated with as long; false otherwise.
+   */
+  static boolean isExactLong(Object value) {
+    if (value instanceof Double) {
+      double doubleValue = (Double) value;
+      return doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) <= MAX_EXACT_DOUBLE;
+    }
+    return isIntegral(value) && isExactLong(((Number) value).longValue());
+  }
+
+  static boolean isExactLong(long value) {
+    return value >= -MAX_EXACT_DOUBLE && value <= MAX_EXACT_DOUBLE;
+  }
+
+  /**
+   * Checks if the argument can be compared as double with the same result as its BigDecimal. That holds for finite Doubles, whose
+   * shortest decimal representations are ordered like the Doubles themselves, and for integral values which a double represents exactly.
+   *
+   * @param value The evaluated argument.
+   * @return true if the argument can be compared as double; false otherwise.
+   */
+  static boolean isExactDouble(Object value) {
+    if (value instanceof Double) {
+      return Double.isFinite((Double) value);
+    }
+    return isIntegral(value) && isExactLong(((Number) value).longValue());
   }
 }
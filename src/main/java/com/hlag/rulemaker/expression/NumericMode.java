@@ -0,0 +1,48 @@
+package com.hlag.rulemaker.expression;
+
+import java.math.MathContext;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * How the math operations of {@link BigDecimalMathExpression} calculate.
+ *
+ * <ul>
+ *   <li>{@link #EXACT} calculates with BigDecimal, optionally rounded to a {@link MathContext}. Without rounding a division with a
+ *   non-terminating result fails, like it always did.</li>
+ *   <li>{@link #FAST} calculates with long for integral values of at most 2^53 in magnitude, including integral doubles, and with double
+ *   for all other numbers. Results are doubles, like the numbers of the data. A long calculation which would overflow or whose result a
+ *   double cannot represent exactly, a double calculation which is not finite and all arguments which are not numbers fall back to the
+ *   exact calculation.</li>
+ * </ul>
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NumericMode {
+
+  public static final NumericMode EXACT = new NumericMode(false, MathContext.UNLIMITED);
+  public static final NumericMode FAST = new NumericMode(true, MathContext.UNLIMITED);
+
+  private final boolean fast;
+
+  /**
+   * The precision and rounding of the exact calculation.
+   */
+  private final MathContext mathContext;
+
+  /**
+   * Creates an exact mode which rounds every result of an operation to the given math context.
+   *
+   * @param mathContext The precision and rounding, for example {@link MathContext#DECIMAL128}.
+   * @return The exact numeric mode.
+   */
+  public static NumericMode exact(@NonNull MathContext mathContext) {
+    return new NumericMode(false, mathContext);
+  }
+}
@@ -0,0 +1,59 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveNodeUnitTest {
+
+  @Test
+  void shouldPromoteToClosure_whenEvaluate_givenThresholdReached() {
+    //Given
+    RuleMakerJsonLogic jsonLogic = RuleMakerJsonLogic.builder()
+      .engine(RuleEngine.ADAPTIVE)
+      .promotionThreshold(3)
+      .build();
+    CompiledRule rule = jsonLogic.compile(RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)));
+    AdaptiveNode sut = (AdaptiveNode) rule.getExecutable();
+
+    //When
+    Object first = rule.evaluate(Map.of("weight", 1200));
+    Object second = rule.evaluate(Map.of("weight", 800));
+    boolean promotedBeforeThreshold = sut.isPromoted();
+    Object third = rule.evaluate(Map.of("weight", 1200));
+    Object fourth = rule.evaluate(Map.of("weight", 800));
+
+    //Then
+    assertThat(promotedBeforeThreshold).isFalse();
+    assertThat(sut.isPromoted()).isTrue();
+    assertThat(first).isEqualTo(true);
+    assertThat(second).isEqualTo(false);
+    assertThat(third).isEqualTo(true);
+    assertThat(fourth).isEqualTo(false);
+  }
+
+  @Test
+  void shouldUseDefaults_whenBuild_givenNoValues() {
+    //Given
+    //When
+    RuleMakerJsonLogic jsonLogic = RuleMakerJsonLogic.builder().build();
+
+    //Then
+    assertThat(jsonLogic.getEngine()).isEqualTo(RuleEngine.defaultEngine());
+    assertThat(jsonLogic.getPromotionThreshold()).isEqualTo(RuleMakerJsonLogic.DEFAULT_PROMOTION_THRESHOLD);
+  }
+
+  @Test
+  void shouldThrowException_whenBuild_givenNonPositiveThreshold() {
+    //Given
+    RuleMakerJsonLogic.RuleMakerJsonLogicBuilder builder = RuleMakerJsonLogic.builder().promotionThreshold(0);
+
+    //When
+    //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Promotion threshold must be positive, was 0");
+  }
+}
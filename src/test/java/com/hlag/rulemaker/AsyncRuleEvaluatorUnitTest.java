@@ -0,0 +1,226 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class AsyncRuleEvaluatorUnitTest {
+
+  private static final CompiledRule RULE = RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)).compile();
+
+  @Test
+  void shouldCompleteWithResult_whenEvaluateAsync_givenData() {
+    //Given
+    AsyncRuleEvaluator sut = new AsyncRuleEvaluator();
+
+    //When
+    CompletableFuture<Object> heavy = sut.evaluateAsync(RULE, Map.of("weight", 1200));
+    CompletableFuture<Object> light = sut.evaluateAsync(RULE, Map.of("weight", 800));
+
+    //Then
+    assertThat(heavy.join()).isEqualTo(true);
+    assertThat(light.join()).isEqualTo(false);
+  }
+
+  @Test
+  void shouldCompleteExceptionally_whenEvaluateAsync_givenMissingVariable() {
+    //Given
+    AsyncRuleEvaluator sut = new AsyncRuleEvaluator();
+
+    //When
+    CompletableFuture<Object> future = sut.evaluateAsync(RULE, Map.of());
+
+    //Then
+    assertThatThrownBy(future::join)
+      .isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(RuleMakerMissingVariablesException.class);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldCompleteExceptionally_whenEvaluateAsync_givenErrorInEvaluation() {
+    //Given
+    Map<String, Object> overflowingData = new HashMap<>() {
+      @Override
+      public boolean containsKey(Object key) {
+        throw new StackOverflowError();
+      }
+
+      @Override
+      public Object get(Object key) {
+        throw new StackOverflowError();
+      }
+    };
+    AsyncRuleEvaluator sut = AsyncRuleEvaluator.builder().maxInFlight(1).build();
+
+    //When
+    CompletableFuture<Object> failed = sut.evaluateAsync(RULE, overflowingData);
+    CompletableFuture<Object> next = sut.evaluateAsync(RULE, Map.of("weight", 1200));
+
+    //Then
+    assertThat(failed).failsWithin(10, TimeUnit.SECONDS)
+      .withThrowableOfType(ExecutionException.class)
+      .withCauseInstanceOf(StackOverflowError.class);
+    assertThat(next.get(10, TimeUnit.SECONDS)).isEqualTo(true);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldLimitRunningEvaluations_whenEvaluateAsync_givenMaxInFlight() {
+    //Given
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncRuleEvaluator sut = AsyncRuleEvaluator.builder()
+      .executor(task -> executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        awaitQuietly(release);
+        running.decrementAndGet();
+        task.run();
+      }))
+      .maxInFlight(2)
+      .build();
+
+    //When
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      futures.add(sut.evaluateAsync(RULE, Map.of("weight", i * 100)));
+    }
+    int queuedWhileBlocked = sut.getQueuedCount();
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    //Then
+    assertThat(queuedWhileBlocked).isEqualTo(18);
+    assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    assertThat(futures.get(11).join()).isEqualTo(true);
+    assertThat(sut.getQueuedCount()).isZero();
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldRejectEvaluation_whenEvaluateAsync_givenFullQueue() {
+    //Given
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncRuleEvaluator sut = AsyncRuleEvaluator.builder()
+      .executor(task -> executor.execute(() -> {
+        awaitQuietly(release);
+        task.run();
+      }))
+      .maxInFlight(2)
+      .maxQueued(3)
+      .build();
+
+    //When
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      futures.add(sut.evaluateAsync(RULE, Map.of("weight", 1200)));
+    }
+    int queuedWhileBlocked = sut.getQueuedCount();
+    release.countDown();
+    CompletableFuture.allOf(futures.subList(0, 5).toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    CompletableFuture<Object> afterwards = sut.evaluateAsync(RULE, Map.of("weight", 1200));
+    afterwards.get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    //Then
+    assertThat(queuedWhileBlocked).isEqualTo(3);
+    assertThat(futures.subList(0, 5)).allSatisfy(future -> assertThat(future.join()).isEqualTo(true));
+    assertThat(futures.subList(5, 7)).allSatisfy(future -> assertThatThrownBy(future::join)
+      .isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(RejectedExecutionException.class)
+      .hasMessageContaining("2 evaluations are running and 3 are queued"));
+    assertThat(afterwards.join()).isEqualTo(true);
+    assertThat(sut.getQueuedCount()).isZero();
+  }
+
+  @Test
+  void shouldRejectQueuedEvaluations_whenEvaluateAsync_givenRejectingExecutor() {
+    //Given
+    List<CompletableFuture<Object>> queuedFutures = new ArrayList<>();
+    AsyncRuleEvaluator[] sut = new AsyncRuleEvaluator[1];
+    sut[0] = AsyncRuleEvaluator.builder()
+      .executor(task -> {
+        // Evaluations which arrive while the first one still holds its permit are queued
+        if (queuedFutures.isEmpty()) {
+          for (int i = 0; i < 3; i++) {
+            queuedFutures.add(sut[0].evaluateAsync(RULE, Map.of("weight", 1200)));
+          }
+        }
+        throw new RejectedExecutionException("Executor shut down");
+      })
+      .maxInFlight(1)
+      .build();
+
+    //When
+    CompletableFuture<Object> future = sut[0].evaluateAsync(RULE, Map.of("weight", 1200));
+
+    //Then
+    assertThat(queuedFutures).hasSize(3);
+    assertThat(queuedFutures).allSatisfy(queued -> assertThat(queued).isCompletedExceptionally());
+    assertThatThrownBy(future::join)
+      .isInstanceOf(CompletionException.class)
+      .hasCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(sut[0].getQueuedCount()).isZero();
+  }
+
+  @Test
+  void shouldProvideVirtualThreads_whenNewVirtualThreadExecutor_givenJava21() {
+    //Given
+    boolean hasVirtualThreads = Runtime.version().feature() >= 21;
+
+    //When
+    boolean present = AsyncRuleEvaluator.newVirtualThreadExecutor().isPresent();
+
+    //Then
+    assertThat(present).isEqualTo(hasVirtualThreads);
+  }
+
+  @Test
+  void shouldThrowException_whenBuild_givenNonPositiveMaxInFlight() {
+    //Given
+    AsyncRuleEvaluator.AsyncRuleEvaluatorBuilder builder = AsyncRuleEvaluator.builder().maxInFlight(0);
+
+    //When
+    //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Maximum in-flight evaluations must be positive, was 0");
+  }
+
+  @Test
+  void shouldThrowException_whenBuild_givenNegativeMaxQueued() {
+    //Given
+    AsyncRuleEvaluator.AsyncRuleEvaluatorBuilder builder = AsyncRuleEvaluator.builder().maxQueued(-1);
+
+    //When
+    //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Maximum queued evaluations must not be negative, was -1");
+  }
+
+  @SneakyThrows
+  private static void awaitQuietly(CountDownLatch latch) {
+    latch.await(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,111 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ClosureCompilerUnitTest {
+
+  private static final RuleMakerJsonLogic INTERPRETER = new RuleMakerJsonLogic(RuleEngine.INTERPRETER);
+  private static final RuleMakerJsonLogic CLOSURE = new RuleMakerJsonLogic(RuleEngine.CLOSURE);
+
+  private static final Map<String, Object> DATA = Map.of(
+    "weight", 1200,
+    "lane", "ASIA-EU",
+    "empty", "",
+    "numbers", List.of(1, 2, 3),
+    "containers", List.of(Map.of("size", 20), Map.of("size", 40)),
+    "shipment", Map.of("date", "2024-04-19", "reefer", true)
+  );
+
+  @ParameterizedTest
+  @MethodSource("expressions")
+  void shouldReturnSameResultAsInterpreter_whenEvaluate_givenClosureEngine(String json) {
+    //Given
+    CompiledRule interpreted = INTERPRETER.compile(json);
+    CompiledRule closure = CLOSURE.compile(json);
+
+    //When
+    Object expected = evaluate(interpreted);
+    Object value = evaluate(closure);
+
+    //Then
+    assertThat(value).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldUseClosureEngine_whenCompile_givenClosureJsonLogic() {
+    //Given
+    RuleMaker ruleMaker = RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000));
+
+    //When
+    Object value = CLOSURE.compile(ruleMaker).evaluate(DATA);
+
+    //Then
+    assertThat(CLOSURE.getEngine()).isEqualTo(RuleEngine.CLOSURE);
+    assertThat(value).isEqualTo(true);
+  }
+
+  @Test
+  void shouldNameOperator_whenEvaluate_givenLogicWithoutArguments() {
+    //Given
+    CompiledRule and = CLOSURE.compile("{\"and\":[]}");
+    CompiledRule or = CLOSURE.compile("{\"or\":[]}");
+
+    //When //Then
+    assertThatThrownBy(() -> and.evaluate(DATA))
+      .isInstanceOf(RuleMakerEvaluationException.class)
+      .hasMessage("and operator expects at least 1 argument");
+    assertThatThrownBy(() -> or.evaluate(DATA))
+      .isInstanceOf(RuleMakerEvaluationException.class)
+      .hasMessage("or operator expects at least 1 argument");
+  }
+
+  private static Object evaluate(CompiledRule rule) {
+    Throwable throwable = catchThrowable(() -> rule.evaluate(DATA));
+    if (throwable != null) {
+      return throwable.getClass().getName() + ": " + throwable.getMessage();
+    }
+    return rule.evaluate(DATA);
+  }
+
+  private static Stream<Arguments> expressions() {
+    return Stream.of(
+      Arguments.of("{\">\":[{\"var\":\"weight\"},1000]}"),
+      Arguments.of("{\"<= <\":[1000,{\"var\":\"weight\"},\"1200\"]}"),
+      Arguments.of("{\"<\":[{\"var\":\"lane\"},1000]}"),
+      Arguments.of("{\"<\":[1,2,3]}"),
+      Arguments.of("{\"and\":[{\"==\":[{\"var\":\"lane\"},\"ASIA-EU\"]},{\">=\":[{\"var\":\"weight\"},1200]}]}"),
+      Arguments.of("{\"and\":[{\"var\":\"empty\"},{\"var\":\"weight\"}]}"),
+      Arguments.of("{\"or\":[{\"var\":\"empty\"},0,{\"var\":\"lane\"}]}"),
+      Arguments.of("{\"and\":[]}"),
+      Arguments.of("{\"if\":[false,1,{\"var\":\"shipment.reefer\"},2,3]}"),
+      Arguments.of("{\"if\":[false,1,false,2]}"),
+      Arguments.of("{\"if\":[{\"var\":\"lane\"},\"yes\"]}"),
+      Arguments.of("{\"if\":[]}"),
+      Arguments.of("{\"var\":[\"unknown.path\",\"fallback\"]}"),
+      Arguments.of("{\"var\":\"containers.1.size\"}"),
+      Arguments.of("{\"var\":\"containers.x\"}"),
+      Arguments.of("{\"var\":1}"),
+      Arguments.of("{\"var\":[null]}"),
+      Arguments.of("{\"!\":[[0]]}"),
+      Arguments.of("{\"!!\":{\"var\":\"lane\"}}"),
+      Arguments.of("{\"+\":[{\"var\":\"weight\"},{\"var\":\"numbers.2\"}]}"),
+      Arguments.of("{\"map\":[{\"var\":\"numbers\"},{\"*\":[{\"var\":\"\"},2]}]}"),
+      Arguments.of("{\"some\":[{\"var\":\"containers\"},{\">\":[{\"var\":\"size\"},30]}]}"),
+      Arguments.of("{\"!=\":[{\"var\":\"weight\"},\"1200\"]}"),
+      Arguments.of("{\"in\":[\"EU\",{\"var\":\"lane\"}]}"),
+      Arguments.of("{\"dateDiff\":[\"2024-05-03\",{\"var\":\"shipment.date\"},\"BUSINESS_DAYS\"]}"),
+      Arguments.of("{\"unknown\":[1,2]}")
+    );
+  }
+}
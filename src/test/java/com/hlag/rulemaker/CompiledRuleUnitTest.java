@@ -0,0 +1,163 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerEvaluationException;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import com.hlag.rulemaker.exception.RuleMakerParseExpressionException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class CompiledRuleUnitTest {
+
+  @Test
+  void shouldReturnSameResultAsRuleMaker_whenEvaluate_givenCompiledRuleMaker() {
+    //Given
+    RuleMaker ruleMaker = RuleMaker.add(RuleMaker.var("x"), RuleMaker.var("y.z"), RuleMaker.literal(1));
+    Map<String, Object> data = Map.of("x", 2, "y", Map.of("z", 3));
+    CompiledRule sut = ruleMaker.compile();
+
+    //When
+    Object value = sut.evaluate(data);
+
+    //Then
+    assertThat(value).isEqualTo(ruleMaker.evaluate(data));
+    assertThat(value).isEqualTo(new BigDecimal("6.0"));
+  }
+
+  @Test
+  void shouldEvaluateRepeatedly_whenEvaluate_givenCompiledJson() {
+    //Given
+    CompiledRule sut = RuleMaker.compile("{\">\":[{\"var\":\"weight\"},100]}");
+
+    //When
+    Object heavy = sut.evaluate(Map.of("weight", 150));
+    Object light = sut.evaluate(Map.of("weight", 50));
+
+    //Then
+    assertThat(heavy).isEqualTo(true);
+    assertThat(light).isEqualTo(false);
+  }
+
+  @Test
+  void shouldReturnRequiredVariables_whenGetVariables_givenReduce() {
+    //Given
+    RuleMaker ruleMaker = RuleMaker.reduce(RuleMaker.var("numbers"), RuleMaker.add(RuleMaker.var("current"),
+      RuleMaker.var("accumulator")), RuleMaker.literal(0));
+
+    //When
+    CompiledRule sut = ruleMaker.compile();
+
+    //Then
+    assertThat(sut.getVariables()).containsExactly("numbers");
+    assertThat(sut.evaluate(Map.of("numbers", List.of(1, 2, 3)))).isEqualTo(new BigDecimal("6.0"));
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenMissingVariable() {
+    //Given
+    CompiledRule sut = RuleMaker.eq(RuleMaker.var("x"), RuleMaker.var("y")).compile();
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.evaluate(Map.of("y", 1)))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessage("Missing variables: [x]");
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenWrongDataFormat() {
+    //Given
+    CompiledRule sut = RuleMaker.add(RuleMaker.literal(1), RuleMaker.var("x")).compile();
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.evaluate(Map.of("x", "wrong_format")))
+      .isInstanceOf(RuleMakerEvaluationException.class)
+      .hasMessage("Non numeric argument: wrong_format");
+  }
+
+  @Test
+  void shouldThrowException_whenCompile_givenInvalidJson() {
+    //Given
+    String expression = "{\"+\":[1,2";
+
+    //When
+    //Then
+    assertThatThrownBy(() -> RuleMaker.compile(expression))
+      .isInstanceOf(RuleMakerParseExpressionException.class);
+  }
+
+  @Test
+  void shouldReturnValuesAndMatches_whenEvaluateBatch_givenRecords() {
+    //Given
+    CompiledRule sut = RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)).compile();
+    List<Map<String, Object>> records = List.of(Map.of("weight", 1200), Map.of("weight", 800), Map.of("weight", 1001));
+
+    //When
+    BatchResult result = sut.evaluateBatch(records);
+
+    //Then
+    assertThat(result.size()).isEqualTo(3);
+    assertThat(result.getValues()).containsExactly(true, false, true);
+    assertThat(result.getMatches().stream()).containsExactly(0, 2);
+    assertThat(result.hasErrors()).isFalse();
+  }
+
+  @Test
+  void shouldReportErrorsPerRecord_whenEvaluateBatch_givenInvalidRecords() {
+    //Given
+    CompiledRule sut = RuleMaker.add(RuleMaker.var("x"), RuleMaker.literal(1)).compile();
+    List<Map<String, Object>> records = List.of(Map.of("x", 1), Map.of("y", 1), Map.of("x", "wrong_format"), Map.of("x", 2));
+
+    //When
+    BatchResult result = sut.evaluateBatch(records);
+
+    //Then
+    assertThat(result.getValues()).containsExactly(new BigDecimal("2.0"), null, null, new BigDecimal("3.0"));
+    assertThat(result.getErrors()).containsOnlyKeys(1, 2);
+    assertThat(result.getErrors().get(1)).isInstanceOf(RuleMakerMissingVariablesException.class).hasMessage("Missing variables: [x]");
+    assertThat(result.getErrors().get(2)).isInstanceOf(RuleMakerEvaluationException.class);
+    assertThat(result.matches(1)).isFalse();
+  }
+
+  @Test
+  void shouldReturnSameResultAsSequential_whenEvaluateBatch_givenPool() {
+    //Given
+    CompiledRule sut = RuleMaker.and(RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)),
+      RuleMaker.eq(RuleMaker.var("lane"), RuleMaker.literal("ASIA-EU"))).compile();
+    List<Map<String, Object>> records = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      records.add(i % 97 == 0 ? Map.of("lane", "ASIA-EU") : Map.of("weight", i, "lane", i % 3 == 0 ? "ASIA-EU" : "EU-US"));
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    //When
+    BatchResult parallel = sut.evaluateBatch(records, pool, 100);
+    BatchResult sequential = sut.evaluateBatch(records);
+    pool.shutdown();
+
+    //Then
+    assertThat(parallel.getValues()).containsExactly(sequential.getValues());
+    assertThat(parallel.getMatches()).isEqualTo(sequential.getMatches());
+    assertThat(parallel.getErrors().keySet()).isEqualTo(sequential.getErrors().keySet());
+    assertThat(parallel.getErrors()).hasSize(104);
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluateBatch_givenNonPositiveThreshold() {
+    //Given
+    CompiledRule sut = RuleMaker.var("x").compile();
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.evaluateBatch(List.of(), ForkJoinPool.commonPool(), 0))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Sequential threshold must be positive, was 0");
+  }
+}
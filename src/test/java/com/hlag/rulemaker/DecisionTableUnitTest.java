@@ -0,0 +1,172 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.DecisionTable.HitPolicy;
+import com.hlag.rulemaker.DecisionTable.Row;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DecisionTableUnitTest {
+
+  private static final RuleMaker WEIGHT = RuleMaker.var("cargo.weight");
+  private static final RuleMaker EXPORT = RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT"));
+
+  private static final List<Row> ROWS = List.of(
+    Row.of(RuleMaker.and(RuleMaker.lteLt(RuleMaker.literal(0), WEIGHT, RuleMaker.literal(10_000)), EXPORT), RuleMaker.literal(50), 1),
+    Row.of(RuleMaker.lteLt(RuleMaker.literal(0), WEIGHT, RuleMaker.literal(10_000)), RuleMaker.literal(40), 1),
+    Row.of(RuleMaker.lteLt(RuleMaker.literal(10_000), WEIGHT, RuleMaker.literal(20_000)), RuleMaker.literal(80), 2),
+    Row.of(RuleMaker.gte(WEIGHT, RuleMaker.literal(10_000)), RuleMaker.mul(WEIGHT, RuleMaker.literal(0.01)), 3));
+
+  @Test
+  void shouldReturnFirstMatchingRow_whenEvaluate_givenFirstHitPolicy() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().rows(ROWS).build();
+
+    //When
+    DecisionTableResult result = sut.evaluate(Map.of("cargo", Map.of("weight", 12_000), "direction", "EXPORT"));
+
+    //Then
+    assertThat(sut.getHitPolicy()).isEqualTo(HitPolicy.FIRST);
+    assertThat(sut.getIndexedRowCount()).isEqualTo(4);
+    assertThat(result.hasMatch()).isTrue();
+    assertThat(result.getRows()).containsExactly(2);
+    assertThat(result.getResult()).isEqualTo(80.0);
+  }
+
+  @Test
+  void shouldReturnAllMatchingRowsInTableOrder_whenEvaluate_givenAllHitPolicy() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().hitPolicy(HitPolicy.ALL).rows(ROWS).build();
+
+    //When
+    DecisionTableResult result = sut.evaluate(Map.of("cargo", Map.of("weight", 12_000), "direction", "EXPORT"));
+
+    //Then
+    assertThat(result.getRows()).containsExactly(2, 3);
+    assertThat(result.getResults()).hasSize(2).startsWith(80.0);
+    assertThat((BigDecimal) result.getResults().get(1)).isEqualByComparingTo("120");
+  }
+
+  @Test
+  void shouldReturnMatchingRowWithHighestPriority_whenEvaluate_givenPriorityHitPolicy() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().hitPolicy(HitPolicy.PRIORITY).rows(ROWS).build();
+
+    //When
+    DecisionTableResult heavy = sut.evaluate(Map.of("cargo", Map.of("weight", 12_000), "direction", "EXPORT"));
+    DecisionTableResult light = sut.evaluate(Map.of("cargo", Map.of("weight", 500), "direction", "EXPORT"));
+
+    //Then
+    assertThat(heavy.getRows()).containsExactly(3);
+    assertThat(light.getRows()).containsExactly(0);
+  }
+
+  @Test
+  void shouldReturnNoMatch_whenEvaluate_givenNoMatchingRow() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().rows(ROWS).build();
+
+    //When
+    DecisionTableResult result = sut.evaluate(Map.of("cargo", Map.of("weight", -1), "direction", "IMPORT"));
+
+    //Then
+    assertThat(result.hasMatch()).isFalse();
+    assertThat(result.getResult()).isNull();
+    assertThat(result.getResults()).isEmpty();
+  }
+
+  @Test
+  void shouldMatchLikeConditionsOneByOne_whenEvaluate_givenIndexedTable() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().hitPolicy(HitPolicy.ALL).rows(ROWS).build();
+
+    for (Object weight : List.of(-5, 0, 9_999.5, 10_000, 19_999, 20_000, "15000")) {
+      for (String direction : List.of("EXPORT", "IMPORT")) {
+        Map<String, Object> data = Map.of("cargo", Map.of("weight", weight), "direction", direction);
+        List<Integer> expected = new ArrayList<>();
+        for (int row = 0; row < ROWS.size(); row++) {
+          if (Boolean.TRUE.equals(ROWS.get(row).getCondition().evaluate(data))) {
+            expected.add(row);
+          }
+        }
+
+        //When
+        DecisionTableResult result = sut.evaluate(data);
+
+        //Then
+        assertThat(result.getRows()).as("rows for %s and %s", weight, direction).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void shouldStopAtFirstMatch_whenEvaluate_givenMissingVariableInLaterRow() {
+    //Given
+    DecisionTable sut = DecisionTable.builder()
+      .row(Row.of(EXPORT, RuleMaker.literal("export")))
+      .row(Row.of(RuleMaker.var("cargo.reefer"), RuleMaker.literal("reefer")))
+      .build();
+
+    //When
+    DecisionTableResult export = sut.evaluate(Map.of("direction", "EXPORT"));
+
+    //Then
+    assertThat(export.getResult()).isEqualTo("export");
+    assertThatThrownBy(() -> sut.evaluate(Map.of("direction", "IMPORT")))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessage("Missing variables: [cargo.reefer]");
+  }
+
+  @Test
+  void shouldEvaluateFrame_whenEvaluate_givenFilledFrame() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().rows(ROWS).build();
+    Frame frame = sut.newFrame().setLong(sut.slotOf("cargo.weight"), 25_000).set("direction", "IMPORT");
+
+    //When
+    DecisionTableResult result = sut.evaluate(frame);
+
+    //Then
+    assertThat(sut.getSlots()).containsExactly("cargo.weight", "direction");
+    assertThat((BigDecimal) result.getResult()).isEqualByComparingTo("250");
+  }
+
+  @Test
+  void shouldReadVariable_whenEvaluate_givenVariableWithDefaultValue() {
+    //Given
+    RuleMaker direction = new RuleMaker(Map.of("var", List.of("direction", "EXPORT")));
+    DecisionTable sut = DecisionTable.builder()
+      .row(Row.of(RuleMaker.eq(direction, RuleMaker.literal("IMPORT")), RuleMaker.literal("import"), 1))
+      .row(Row.of(RuleMaker.eq(direction, RuleMaker.literal("EXPORT")), RuleMaker.literal("export"), 1))
+      .build();
+
+    //When
+    DecisionTableResult present = sut.evaluate(Map.of("direction", "IMPORT"));
+    DecisionTableResult absent = sut.evaluate(Map.of());
+    DecisionTableResult frame = sut.evaluate(sut.newFrame().set("direction", "IMPORT"));
+
+    //Then
+    assertThat(sut.getSlots()).containsExactly("direction");
+    assertThat(present.getResult()).isEqualTo("import");
+    assertThat(absent.getResult()).isEqualTo("export");
+    assertThat(frame.getResult()).isEqualTo("import");
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenFrameOfRuleSet() {
+    //Given
+    DecisionTable sut = DecisionTable.builder().rows(ROWS).build();
+    Frame frame = RuleSet.builder().rule("export", EXPORT).build().newFrame();
+
+    //When //Then
+    assertThatThrownBy(() -> sut.evaluate(frame))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("The frame belongs to another decision table");
+  }
+}
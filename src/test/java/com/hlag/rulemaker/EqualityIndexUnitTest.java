@@ -0,0 +1,124 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class EqualityIndexUnitTest {
+
+  private static final RuleMaker HEAVY = RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(20_000));
+
+  private static final List<RuleMaker> RULES = List.of(
+    RuleMaker.and(RuleMaker.eq(RuleMaker.var("tradeLane"), RuleMaker.literal("ASIA-EU")), HEAVY),
+    RuleMaker.and(RuleMaker.eq(RuleMaker.var("tradeLane"), RuleMaker.literal("EU-US")), HEAVY),
+    RuleMaker.eq(RuleMaker.literal("ASIA-EU"), RuleMaker.var("tradeLane")),
+    RuleMaker.and(RuleMaker.eq(RuleMaker.var("tradeLane"), RuleMaker.literal(1)), HEAVY),
+    HEAVY);
+
+  @Test
+  void shouldReturnMatchingRulesOnly_whenFindCandidates_givenValueOfGuardType() {
+    //Given
+    RuleSet ruleSet = ruleSet();
+    EqualityIndex sut = index(ruleSet);
+    Frame frame = ruleSet.newFrame().set("tradeLane", "ASIA-EU").set("cargo.weight", 25_000);
+
+    //When
+    int[] candidates = findCandidates(sut, frame);
+
+    //Then
+    assertThat(sut.getIndexedRuleCount()).isEqualTo(4);
+    assertThat(candidates).containsExactlyInAnyOrder(0, 2, 3);
+  }
+
+  @Test
+  void shouldReturnAllRulesOfVariable_whenFindCandidates_givenUnsetVariable() {
+    //Given
+    RuleSet ruleSet = ruleSet();
+    EqualityIndex sut = index(ruleSet);
+    Frame frame = ruleSet.newFrame().set("cargo.weight", 25_000);
+
+    //When
+    int[] candidates = findCandidates(sut, frame);
+
+    //Then
+    assertThat(candidates).containsExactlyInAnyOrder(0, 1, 2, 3);
+  }
+
+  @Test
+  void shouldNotIndexRule_whenBuild_givenGuardAfterOtherConditionOrStrictNumber() {
+    //Given
+    RuleSet.RuleSetBuilder builder = RuleSet.builder()
+      .rule("reeferFirst", RuleMaker.and(RuleMaker.var("reefer"), RuleMaker.eq(RuleMaker.var("tradeLane"), RuleMaker.literal("ASIA-EU"))))
+      .expression("strictZero", "{\"===\":[{\"var\":\"cargo.weight\"},0]}");
+
+    //When
+    RuleSet sut = builder.build();
+
+    //Then
+    assertThat(sut.getIndexedRuleCount()).isZero();
+    Map<String, Object> data = Map.of("reefer", false, "tradeLane", "ASIA-EU", "cargo", Map.of("weight", -0.0));
+    assertThat(sut.evaluate(data).getMatches()).containsExactly("strictZero");
+  }
+
+  @Test
+  void shouldEvaluateLikeEveryRule_whenEvaluate_givenIndexedRuleSet() {
+    //Given
+    RuleSet sut = ruleSet();
+    List<Object> tradeLanes = Arrays.asList("ASIA-EU", "EU-US", "US-ASIA", 1, 1.0, "1", true, null);
+
+    for (Object tradeLane : tradeLanes) {
+      Map<String, Object> data = new HashMap<>();
+      data.put("tradeLane", tradeLane);
+      data.put("cargo", Map.of("weight", 25_000));
+
+      //When
+      RuleSetResult result = sut.evaluate(data);
+
+      //Then
+      for (int i = 0; i < RULES.size(); i++) {
+        assertThat(result.get(String.valueOf(i))).as("rule %s for %s", i, tradeLane).isEqualTo(RULES.get(i).evaluate(data));
+      }
+    }
+  }
+
+  @Test
+  void shouldReportMissingVariables_whenEvaluate_givenSkippedRuleWithMissingVariable() {
+    //Given
+    RuleSet sut = ruleSet();
+
+    //When
+    RuleSetResult result = sut.evaluate(Map.of("tradeLane", "EU-US"));
+
+    //Then
+    assertThat(result.getValues()).containsOnlyKeys("2");
+    assertThat(result.matches("2")).isFalse();
+    assertThat(result.getErrors()).containsOnlyKeys("0", "1", "3", "4");
+    assertThat(result.getErrors().get("0")).isInstanceOf(RuleMakerMissingVariablesException.class);
+  }
+
+  private static int[] findCandidates(EqualityIndex index, Frame frame) {
+    int[] candidates = new int[RULES.size()];
+    return Arrays.copyOf(candidates, index.appendCandidates(frame, candidates, 0));
+  }
+
+  private static RuleSet ruleSet() {
+    RuleSet.RuleSetBuilder builder = RuleSet.builder();
+    for (int i = 0; i < RULES.size(); i++) {
+      builder.rule(String.valueOf(i), RULES.get(i));
+    }
+    return builder.build();
+  }
+
+  private static EqualityIndex index(RuleSet ruleSet) {
+    RuleMakerJsonLogic jsonLogic = new RuleMakerJsonLogic();
+    List<JsonLogicNode> nodes = RULES.stream().map(rule -> jsonLogic.compile(rule).getNode()).collect(Collectors.toList());
+    return new EqualityIndex(nodes, new SlotLayout(ruleSet.getSlots()), jsonLogic);
+  }
+}
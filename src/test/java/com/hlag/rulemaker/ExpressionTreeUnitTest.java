@@ -0,0 +1,98 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerParseExpressionException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ExpressionTreeUnitTest {
+
+  private static final Map<String, Object> DATA = Map.of(
+    "weight", 1200,
+    "lane", "ASIA-EU",
+    "numbers", List.of(1, 2, 3),
+    "shipment", Map.of("date", "2024-04-19", "reefer", true)
+  );
+
+  @ParameterizedTest
+  @MethodSource("ruleMakers")
+  void shouldEvaluateLikeJson_whenEvaluate_givenInMemoryTree(RuleMaker ruleMaker) {
+    //Given
+    Object expected = RuleMaker.evaluate(ruleMaker.toJson(), DATA);
+
+    //When
+    Object value = ruleMaker.evaluate(DATA);
+
+    //Then
+    assertThat(value).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("ruleMakers")
+  void shouldFindSameVariablesAsJson_whenCompile_givenInMemoryTree(RuleMaker ruleMaker) {
+    //Given
+    CompiledRule fromJson = RuleMaker.compile(ruleMaker.toJson());
+
+    //When
+    CompiledRule fromTree = ruleMaker.compile();
+
+    //Then
+    assertThat(fromTree.getVariables()).isEqualTo(fromJson.getVariables());
+  }
+
+  @Test
+  void shouldThrowException_whenCompile_givenObjectWithMultipleKeys() {
+    //Given
+    RuleMaker ruleMaker = new WrappedRuleMaker(Map.of("+", List.of(1, 2), "-", List.of(1, 2)));
+
+    //When
+    //Then
+    assertThatThrownBy(ruleMaker::compile)
+      .isInstanceOf(RuleMakerParseExpressionException.class)
+      .hasMessageContaining("objects must have exactly 1 key defined, found 2");
+  }
+
+  @Test
+  void shouldThrowException_whenCompile_givenNonFiniteLiteral() {
+    //Given
+    RuleMaker ruleMaker = RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(Double.NaN));
+
+    //When
+    //Then
+    assertThatThrownBy(ruleMaker::compile)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("NaN is not a valid double value");
+    assertThatThrownBy(ruleMaker::toJson)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("NaN is not a valid double value");
+  }
+
+  private static Stream<Arguments> ruleMakers() {
+    return Stream.of(
+      Arguments.of(RuleMaker.and(RuleMaker.eq(RuleMaker.var("lane"), RuleMaker.literal("ASIA-EU")),
+        RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)))),
+      Arguments.of(RuleMaker.ifThenElse(RuleMaker.var("shipment.reefer"), RuleMaker.literal(new BigDecimal("12.5")),
+        RuleMaker.literal(3))),
+      Arguments.of(RuleMaker.in(RuleMaker.var("lane"), RuleMaker.literal(new String[]{"ASIA-EU", "EU-ASIA"}))),
+      Arguments.of(RuleMaker.all(RuleMaker.literal(new Integer[]{2, 3}), RuleMaker.gt(RuleMaker.var(""), RuleMaker.literal(1)))),
+      Arguments.of(RuleMaker.map(RuleMaker.var("numbers"), RuleMaker.mul(RuleMaker.var(""), RuleMaker.literal(2)))),
+      Arguments.of(RuleMaker.reduce(RuleMaker.var("numbers"), RuleMaker.add(RuleMaker.var("current"), RuleMaker.var("accumulator")),
+        RuleMaker.literal(0))),
+      Arguments.of(RuleMaker.missingSome(1, RuleMaker.literal("lane"), RuleMaker.literal("port"))),
+      Arguments.of(RuleMaker.dateDiff(RuleMaker.literal("2024-05-03"), RuleMaker.var("shipment.date"),
+        RuleMaker.literal("BUSINESS_DAYS"))),
+      Arguments.of(RuleMaker.negate(RuleMaker.literal(0))),
+      Arguments.of(RuleMaker.eq(RuleMaker.literal(0.1f), RuleMaker.literal(0.1))),
+      Arguments.of(RuleMaker.in(RuleMaker.literal(0.2), RuleMaker.literal(new Float[]{0.1f, 0.2f}))),
+      Arguments.of(RuleMaker.cat(RuleMaker.var("lane"), RuleMaker.literal(List.of("-", 1))))
+    );
+  }
+}
@@ -0,0 +1,308 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class FrameUnitTest {
+
+  private static final RuleMakerJsonLogic INTERPRETER = new RuleMakerJsonLogic(RuleEngine.INTERPRETER);
+  private static final String[] VARIABLES = {"x", "y", "o", "o.x", "o.y"};
+  private static final String[] OPERATORS = {"+", "==", ">", "!!", "!", "and", "or", "if", "cat", "missing"};
+
+  private static final RuleMaker RULE = RuleMaker.and(
+    RuleMaker.gt(RuleMaker.add(RuleMaker.var("cargo.weight"), RuleMaker.var("cargo.tare")), RuleMaker.literal(1000)),
+    RuleMaker.eq(RuleMaker.var("route.port"), RuleMaker.literal("DEHAM")));
+
+  @Test
+  void shouldAssignSortedSlots_whenCompile_givenVariables() {
+    //Given
+    CompiledRule sut = RULE.compile();
+
+    //When
+    List<String> slots = sut.getSlots();
+
+    //Then
+    assertThat(slots).containsExactly("cargo.tare", "cargo.weight", "route.port");
+    assertThat(sut.slotOf("route.port")).isEqualTo(2);
+  }
+
+  @ParameterizedTest
+  @EnumSource(RuleEngine.class)
+  void shouldEvaluateLikeMapData_whenEvaluate_givenFrame(RuleEngine engine) {
+    //Given
+    CompiledRule sut = new RuleMakerJsonLogic(engine).compile(RULE);
+    Frame frame = sut.newFrame()
+      .setLong(sut.slotOf("cargo.weight"), 900)
+      .setDouble(sut.slotOf("cargo.tare"), 150.5)
+      .set("route.port", "DEHAM");
+
+    //When
+    Object result = sut.evaluate(frame);
+
+    //Then
+    assertThat(result).isEqualTo(true);
+    assertThat(result).isEqualTo(sut.evaluate(Map.of("cargo", Map.of("weight", 900, "tare", 150.5), "route", Map.of("port", "DEHAM"))));
+  }
+
+  @Test
+  void shouldEvaluateNextRecord_whenEvaluate_givenClearedFrame() {
+    //Given
+    CompiledRule sut = RULE.compile();
+    Frame frame = sut.newFrame().set("cargo.weight", 900).set("cargo.tare", 150).set("route.port", "DEHAM");
+    sut.evaluate(frame);
+
+    //When
+    Object result = sut.evaluate(frame.clear().set("cargo.weight", 500).set("cargo.tare", 150).set("route.port", "DEHAM"));
+
+    //Then
+    assertThat(result).isEqualTo(false);
+  }
+
+  @Test
+  void shouldLookUpDataByName_whenEvaluate_givenOperationReadingWholeData() {
+    //Given
+    CompiledRule sut = RuleMaker.and(
+      RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(1000)),
+      RuleMaker.missing(RuleMaker.literal("cargo.weight"), RuleMaker.literal("cargo.volume"))).compile();
+    Frame frame = sut.newFrame().setDouble(sut.slotOf("cargo.weight"), 1200);
+
+    //When
+    Object result = sut.evaluate(frame);
+
+    //Then
+    assertThat(result).isEqualTo(List.of("cargo.volume"));
+  }
+
+  @Test
+  void shouldApplyDefaultValue_whenEvaluate_givenUnsetSlotOfOptionalVariable() {
+    //Given
+    CompiledRule sut = new RuleMakerJsonLogic(RuleEngine.CLOSURE).compile("{\"+\":[{\"var\":[\"o.x\",0]},{\"var\":\"y\"}]}");
+
+    //When
+    Object withValue = sut.evaluate(sut.newFrame().setDouble(sut.slotOf("o.x"), 3.5).setDouble(sut.slotOf("y"), 1));
+    Object withDefault = sut.evaluate(sut.newFrame().setDouble(sut.slotOf("y"), 1));
+
+    //Then
+    assertThat(sut.getSlots()).containsExactly("o.x", "y");
+    assertThat(withValue).isEqualTo(sut.evaluate(Map.of("o", Map.of("x", 3.5), "y", 1)));
+    assertThat(withDefault).isEqualTo(sut.evaluate(Map.of("y", 1)));
+  }
+
+  @ParameterizedTest
+  @EnumSource(RuleEngine.class)
+  void shouldReturnSameResultAsInterpreter_whenEvaluate_givenRandomRulesWithDefaultValues(RuleEngine engine)
+    throws JsonLogicEvaluationException {
+    //Given
+    RuleMakerJsonLogic sut = new RuleMakerJsonLogic(engine);
+    Random random = new Random(42);
+
+    for (int i = 0; i < 2_000; i++) {
+      String json = randomExpression(random, 3);
+      CompiledRule interpreted = INTERPRETER.compile(json);
+      CompiledRule compiled = sut.compile(json);
+      RuleSet ruleSet = RuleSet.builder().jsonLogic(sut).expression("rule", json).build();
+      for (int j = 0; j < 5; j++) {
+        Map<String, Object> data = randomData(random);
+
+        //When
+        Object expected = evaluate(() -> interpreted.evaluate(data));
+        Object mapResult = evaluate(() -> compiled.evaluate(data));
+        Object frameResult = evaluate(() -> compiled.evaluate(compiled.newFrame().load(data)));
+        Object slotResult = evaluate(() -> compiled.evaluate(setSlots(compiled.newFrame(), compiled.getSlots(), data)));
+        Object ruleSetResult = evaluate(ruleSet.evaluate(setSlots(ruleSet.newFrame(), ruleSet.getSlots(), data)));
+
+        //Then
+        assertThat(mapResult).as("%s with %s", json, data).isEqualTo(expected);
+        assertThat(frameResult).as("%s with frame of %s", json, data).isEqualTo(expected);
+        assertThat(slotResult).as("%s with slots of %s", json, data).isEqualTo(expected);
+        assertThat(ruleSetResult).as("%s in rule set with %s", json, data).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenUnsetSlot() {
+    //Given
+    CompiledRule sut = RULE.compile();
+    Frame frame = sut.newFrame().set("cargo.weight", 900).set("route.port", null);
+
+    //When //Then
+    assertThatThrownBy(() -> sut.evaluate(frame))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessage("Missing variables: [cargo.tare]");
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenFrameOfOtherRule() {
+    //Given
+    CompiledRule sut = RULE.compile();
+    Frame frame = RuleMaker.var("cargo.weight").compile().newFrame().set(0, 1);
+
+    //When //Then
+    assertThatThrownBy(() -> sut.evaluate(frame))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("The frame belongs to another rule");
+  }
+
+  @Test
+  void shouldThrowException_whenSlotOf_givenUnknownVariable() {
+    //Given
+    CompiledRule sut = RULE.compile();
+
+    //When //Then
+    assertThatThrownBy(() -> sut.slotOf("cargo.volume"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("No slot for variable 'cargo.volume'");
+  }
+
+  @Test
+  void shouldSetExactValue_whenSetLong_givenLimitOfDoublePrecision() {
+    //Given
+    CompiledRule sut = RuleMaker.eq(RuleMaker.var("id"), RuleMaker.literal(9007199254740992L)).compile();
+    int slot = sut.slotOf("id");
+
+    //When
+    Object atLimit = sut.evaluate(sut.newFrame().setLong(slot, 1L << 53));
+    Object belowLimit = sut.evaluate(sut.newFrame().setLong(slot, (1L << 53) - 1));
+
+    //Then
+    assertThat(atLimit).isEqualTo(true);
+    assertThat(belowLimit).isEqualTo(false);
+  }
+
+  @Test
+  void shouldThrowException_whenSetLong_givenValueBeyondDoublePrecision() {
+    //Given
+    CompiledRule sut = RuleMaker.eq(RuleMaker.var("id"), RuleMaker.literal(0)).compile();
+    Frame frame = sut.newFrame();
+
+    //When //Then
+    assertThatThrownBy(() -> frame.setLong(0, (1L << 53) + 1))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("The long 9007199254740993 of slot 0 is not exactly representable as double");
+    assertThatThrownBy(() -> frame.setLong(0, Long.MIN_VALUE))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThat(frame.isSet(0)).isFalse();
+  }
+
+  private static Object evaluate(Callable<Object> evaluation) {
+    Object[] result = new Object[1];
+    Throwable throwable = catchThrowable(() -> result[0] = evaluation.call());
+    return throwable != null ? throwable.getClass() : result[0];
+  }
+
+  private static Object evaluate(RuleSetResult result) {
+    RuntimeException error = result.getErrors().get("rule");
+    return error != null ? error.getClass() : result.get("rule");
+  }
+
+  private static Frame setSlots(Frame frame, List<String> slots, Map<String, Object> data) throws JsonLogicEvaluationException {
+    for (String slot : slots) {
+      VariablePath path = VariablePath.of(slot);
+      if (path.isPresent(data)) {
+        frame.set(slot, path.lookup(data));
+      }
+    }
+    return frame;
+  }
+
+  private static String randomExpression(Random random, int depth) {
+    if (depth == 0 || random.nextInt(4) == 0) {
+      return random.nextBoolean() ? randomLiteral(random) : randomVariable(random);
+    }
+    String operator = OPERATORS[random.nextInt(OPERATORS.length)];
+    if ("missing".equals(operator)) {
+      String first = VARIABLES[random.nextInt(VARIABLES.length)];
+      String second = VARIABLES[random.nextInt(VARIABLES.length)];
+      return "{\"missing\":[\"" + first + "\",\"" + second + "\"]}";
+    }
+    int arguments = "!!".equals(operator) || "!".equals(operator) ? 1 : "if".equals(operator) ? 3 : 2;
+    StringBuilder json = new StringBuilder("{\"").append(operator).append("\":[");
+    for (int i = 0; i < arguments; i++) {
+      json.append(i == 0 ? "" : ",").append(randomExpression(random, depth - 1));
+    }
+    return json.append("]}").toString();
+  }
+
+  private static String randomVariable(Random random) {
+    String name = "\"" + VARIABLES[random.nextInt(VARIABLES.length)] + "\"";
+    switch (random.nextInt(3)) {
+      case 0:
+        return "{\"var\":" + name + "}";
+      case 1:
+        return "{\"var\":[" + name + "]}";
+      default:
+        return "{\"var\":[" + name + "," + randomLiteral(random) + "]}";
+    }
+  }
+
+  private static String randomLiteral(Random random) {
+    switch (random.nextInt(5)) {
+      case 0:
+        return "null";
+      case 1:
+        return String.valueOf(random.nextBoolean());
+      case 2:
+        return "\"a\"";
+      case 3:
+        return "0";
+      default:
+        return "2.5";
+    }
+  }
+
+  private static Map<String, Object> randomData(Random random) {
+    Map<String, Object> data = new HashMap<>();
+    putRandomValue(random, data, "x");
+    putRandomValue(random, data, "y");
+    switch (random.nextInt(4)) {
+      case 0:
+        break;
+      case 1:
+        data.put("o", null);
+        break;
+      case 2:
+        data.put("o", "a");
+        break;
+      default:
+        Map<String, Object> object = new HashMap<>();
+        putRandomValue(random, object, "x");
+        putRandomValue(random, object, "y");
+        data.put("o", object);
+    }
+    return data;
+  }
+
+  private static void putRandomValue(Random random, Map<String, Object> data, String key) {
+    switch (random.nextInt(6)) {
+      case 0:
+        break;
+      case 1:
+        data.put(key, null);
+        break;
+      case 2:
+        data.put(key, random.nextBoolean());
+        break;
+      case 3:
+        data.put(key, "a");
+        break;
+      case 4:
+        data.put(key, random.nextInt(3));
+        break;
+      default:
+        data.put(key, 3.5);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class IntervalIndexUnitTest {
+
+  private static final RuleMaker WEIGHT = RuleMaker.var("cargo.weight");
+
+  private static final List<RuleMaker> RULES = List.of(
+    RuleMaker.lteLt(RuleMaker.literal(0), WEIGHT, RuleMaker.literal(10_000)),
+    RuleMaker.and(RuleMaker.lteLt(RuleMaker.literal(10_000), WEIGHT, RuleMaker.literal(20_000)),
+      RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT"))),
+    RuleMaker.gte(WEIGHT, RuleMaker.literal(20_000)),
+    RuleMaker.ltLte(RuleMaker.literal(10_000), WEIGHT, RuleMaker.literal(20_000)),
+    RuleMaker.gt(RuleMaker.literal(5_000), WEIGHT),
+    RuleMaker.lte(RuleMaker.literal(0), WEIGHT, RuleMaker.literal(0)),
+    RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT")));
+
+  @Test
+  void shouldReturnRulesOfBand_whenFindCandidates_givenNumber() {
+    //Given
+    RuleSet ruleSet = ruleSet();
+    IntervalIndex sut = index(ruleSet);
+
+    //When //Then
+    assertThat(sut.getIndexedRuleCount()).isEqualTo(6);
+    assertThat(findCandidates(sut, ruleSet.newFrame().set("cargo.weight", 10_000))).containsExactlyInAnyOrder(1);
+    assertThat(findCandidates(sut, ruleSet.newFrame().set("cargo.weight", 20_000))).containsExactlyInAnyOrder(2, 3);
+    assertThat(findCandidates(sut, ruleSet.newFrame().setDouble(0, 4_000.5))).containsExactlyInAnyOrder(0, 4);
+    assertThat(findCandidates(sut, ruleSet.newFrame().setDouble(0, -0.0))).containsExactlyInAnyOrder(0, 4, 5);
+    assertThat(findCandidates(sut, ruleSet.newFrame().setLong(0, -1))).containsExactlyInAnyOrder(4);
+    assertThat(findCandidates(sut, ruleSet.newFrame().set("cargo.weight", 30_000))).containsExactlyInAnyOrder(2);
+  }
+
+  @Test
+  void shouldReturnAllRulesOfVariable_whenFindCandidates_givenNonNumericOrUnsetValue() {
+    //Given
+    RuleSet ruleSet = ruleSet();
+    IntervalIndex sut = index(ruleSet);
+
+    //When //Then
+    assertThat(findCandidates(sut, ruleSet.newFrame().set("cargo.weight", "15000"))).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5);
+    assertThat(findCandidates(sut, ruleSet.newFrame().set("cargo.weight", Double.NaN))).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5);
+    assertThat(findCandidates(sut, ruleSet.newFrame())).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5);
+  }
+
+  @Test
+  void shouldEvaluateLikeEveryRule_whenEvaluate_givenIndexedRuleSet() {
+    //Given
+    RuleSet sut = ruleSet();
+    List<Object> weights = Arrays.asList(-1, 0, -0.0, 0.5, 4_999.999, 5_000, 10_000, 15_000.25, 20_000, 20_000.0001, 1e300,
+      "15000", "heavy", null);
+
+    for (Object weight : weights) {
+      Map<String, Object> cargo = new HashMap<>();
+      cargo.put("weight", weight);
+      Map<String, Object> data = Map.of("cargo", cargo, "direction", "EXPORT");
+
+      //When
+      RuleSetResult result = sut.evaluate(data);
+
+      //Then
+      for (int i = 0; i < RULES.size(); i++) {
+        String id = String.valueOf(i);
+        Object expected;
+        try {
+          expected = RULES.get(i).evaluate(data);
+        } catch (RuntimeException e) {
+          assertThat(result.getErrors()).as("rule %s for %s", i, weight).containsKey(id);
+          continue;
+        }
+        assertThat(result.get(id)).as("rule %s for %s", i, weight).isEqualTo(expected);
+      }
+    }
+  }
+
+  private static int[] findCandidates(IntervalIndex index, Frame frame) {
+    int[] candidates = new int[RULES.size()];
+    return Arrays.copyOf(candidates, index.appendCandidates(frame, candidates, 0));
+  }
+
+  private static RuleSet ruleSet() {
+    RuleSet.RuleSetBuilder builder = RuleSet.builder();
+    for (int i = 0; i < RULES.size(); i++) {
+      builder.rule(String.valueOf(i), RULES.get(i));
+    }
+    return builder.build();
+  }
+
+  private static IntervalIndex index(RuleSet ruleSet) {
+    RuleMakerJsonLogic jsonLogic = new RuleMakerJsonLogic();
+    List<JsonLogicNode> nodes = RULES.stream().map(rule -> jsonLogic.compile(rule).getNode()).collect(Collectors.toList());
+    return new IntervalIndex(nodes, new SlotLayout(ruleSet.getSlots()), jsonLogic);
+  }
+}
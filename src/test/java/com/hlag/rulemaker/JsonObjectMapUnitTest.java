@@ -0,0 +1,144 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.reflect.TypeToken;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class JsonObjectMapUnitTest {
+
+  private static final JsonObject BOOKING = new JsonParser().parse(
+    "{\"cargo\":{\"weight\":1200,\"dangerous\":false,\"tags\":[\"reefer\",null,{\"imo\":3}]},\"carrier\":\"HLAG\",\"note\":null}")
+    .getAsJsonObject();
+
+  @Test
+  void shouldConvertValues_whenGet_givenJsonMembers() {
+    //Given
+    JsonObjectMap sut = new JsonObjectMap(BOOKING);
+
+    //When
+    Object cargo = sut.get("cargo");
+
+    //Then
+    assertThat(cargo).isEqualTo(Map.of(
+      "weight", 1200.0,
+      "dangerous", false,
+      "tags", Arrays.asList("reefer", null, Map.of("imo", 3.0))));
+    assertThat(sut.get("carrier")).isEqualTo("HLAG");
+    assertThat(sut.get("note")).isNull();
+    assertThat(sut.containsKey("note")).isTrue();
+    assertThat(sut.containsKey("missing")).isFalse();
+    assertThat(sut.get(1)).isNull();
+    assertThat(sut).hasSize(3);
+  }
+
+  @Test
+  void shouldBeEqualToConvertedMap_whenEquals_givenSameDocument() {
+    //Given
+    Map<?, ?> converted = RuleMaker.gson.fromJson(BOOKING, Map.class);
+
+    //When
+    JsonObjectMap sut = new JsonObjectMap(BOOKING);
+
+    //Then
+    assertThat(sut).isEqualTo(converted);
+  }
+
+  @ParameterizedTest
+  @EnumSource(RuleEngine.class)
+  void shouldEvaluateRule_whenEvaluateJson_givenJsonObject(RuleEngine engine) {
+    //Given
+    CompiledRule rule = new RuleMakerJsonLogic(engine).compile(RuleMaker.and(
+      RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(1000)),
+      RuleMaker.eq(RuleMaker.var("cargo.tags.2.imo"), RuleMaker.literal(3)),
+      RuleMaker.in(RuleMaker.literal("reefer"), RuleMaker.var("cargo.tags"))));
+
+    //When
+    Object result = rule.evaluateJson(BOOKING);
+
+    //Then
+    assertThat(result).isEqualTo(true);
+  }
+
+  @Test
+  void shouldConvertNumbersToDouble_whenGet_givenParsedAndBuiltNumbers() {
+    //Given
+    JsonObject object = new JsonParser().parse("{\"parsed\":7,\"exponent\":1.2e3}").getAsJsonObject();
+    object.addProperty("long", 5L);
+    object.addProperty("decimal", new BigDecimal("2.50"));
+    object.add("lazy", new JsonPrimitive(new LazilyParsedNumber("-0")));
+
+    //When
+    JsonObjectMap sut = new JsonObjectMap(object);
+
+    //Then
+    assertThat(sut.values()).allSatisfy(value -> assertThat(value).isInstanceOf(Double.class));
+    assertThat(sut).containsEntry("parsed", 7.0).containsEntry("exponent", 1200.0).containsEntry("long", 5.0)
+      .containsEntry("decimal", 2.5).containsEntry("lazy", -0.0);
+  }
+
+  @ParameterizedTest
+  @EnumSource(RuleEngine.class)
+  void shouldEvaluateLikeConvertedMap_whenEvaluateJson_givenNumericComparisons(RuleEngine engine) {
+    //Given
+    String json = "{\"weight\":1200,\"rate\":0.1,\"volume\":1.5e1,\"delta\":-0,\"cargo\":{\"count\":3,\"sizes\":[20,40.0]}}";
+    JsonObject object = new JsonParser().parse(json).getAsJsonObject();
+    Map<String, Object> converted = RuleMaker.gson.fromJson(json, new TypeToken<Map<String, Object>>() { }.getType());
+    RuleMakerJsonLogic jsonLogic = new RuleMakerJsonLogic(engine);
+    List<String> expressions = List.of(
+      "{\"==\":[{\"var\":\"weight\"},1200]}",
+      "{\"===\":[{\"var\":\"weight\"},1200]}",
+      "{\"===\":[{\"var\":\"rate\"},0.1]}",
+      "{\"===\":[{\"var\":\"volume\"},15]}",
+      "{\"===\":[{\"var\":\"delta\"},0]}",
+      "{\"===\":[{\"var\":\"cargo.count\"},3]}",
+      "{\"===\":[{\"var\":\"cargo.sizes.1\"},40]}",
+      "{\"in\":[20,{\"var\":\"cargo.sizes\"}]}",
+      "{\"!==\":[{\"var\":\"weight\"},\"1200\"]}");
+
+    for (String expression : expressions) {
+      //When
+      CompiledRule compiled = jsonLogic.compile(expression);
+      Object fromJson = compiled.evaluateJson(object);
+      Object fromMap = compiled.evaluate(converted);
+
+      //Then
+      assertThat(fromJson).as(expression).isEqualTo(fromMap).isEqualTo(true);
+    }
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluateJson_givenJsonObjectWithoutVariable() {
+    //Given
+    RuleMaker rule = RuleMaker.gt(RuleMaker.var("cargo.volume"), RuleMaker.literal(10));
+
+    //When //Then
+    assertThatThrownBy(() -> rule.evaluateJson(BOOKING))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessageContaining("cargo.volume");
+  }
+
+  @Test
+  void shouldEvaluateExpression_whenStaticEvaluateJson_givenJsonObject() {
+    //Given
+    String expression = RuleMaker.map(RuleMaker.var("cargo.tags"), RuleMaker.var("")).toJson();
+
+    //When
+    Object result = RuleMaker.evaluateJson(expression, BOOKING);
+
+    //Then
+    assertThat(result).isEqualTo(Arrays.asList("reefer", null, Map.of("imo", 3.0)));
+  }
+}
@@ -0,0 +1,155 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NdjsonBulkEvaluatorUnitTest {
+
+  private static final CompiledRule RULE = RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(1000)).compile();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @SneakyThrows
+  void shouldWriteResultPerRecord_whenEvaluate_givenNdjsonFile() {
+    //Given
+    Path input = write("{\"cargo\":{\"weight\":1200,\"description\":\"Stahl\"},\"ignored\":[1,2,3]}\n"
+      + "\n"
+      + "{\"cargo\":{\"weight\":800}}\n"
+      + "{\"cargo\":{}}\n"
+      + "{\"cargo\":{\"weight\":");
+    Path output = directory.resolve("output.ndjson");
+
+    //When
+    NdjsonBulkEvaluator.Summary summary = new NdjsonBulkEvaluator().evaluate(RULE, input, output);
+
+    //Then
+    assertThat(summary.getRecords()).isEqualTo(4);
+    assertThat(summary.getMatches()).isEqualTo(1);
+    assertThat(summary.getErrors()).isEqualTo(2);
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertThat(lines).hasSize(4);
+    assertThat(lines.get(0)).isEqualTo("{\"value\":true}");
+    assertThat(lines.get(1)).isEqualTo("{\"value\":false}");
+    assertThat(lines.get(2)).startsWith("{\"error\":").contains("cargo.weight");
+    assertThat(lines.get(3)).startsWith("{\"error\":");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldKeepRecordOrder_whenEvaluate_givenManySmallChunks() {
+    //Given
+    StringBuilder content = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      content.append("{\"cargo\":{\"weight\":").append(i).append(",\"note\":\"Gewicht ").append(i).append(" kg\"}}\r\n");
+      expected.add("{\"value\":" + (i > 1000) + "}");
+    }
+    Path input = write(content.toString());
+    Path output = directory.resolve("output.ndjson");
+    NdjsonBulkEvaluator sut = NdjsonBulkEvaluator.builder().chunkSize(100).build();
+
+    //When
+    NdjsonBulkEvaluator.Summary summary = sut.evaluate(RULE, input, output);
+
+    //Then
+    assertThat(summary.getRecords()).isEqualTo(2_000);
+    assertThat(summary.getMatches()).isEqualTo(999);
+    assertThat(summary.getErrors()).isZero();
+    assertThat(Files.readAllLines(output, StandardCharsets.UTF_8)).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldWriteErrorAndContinue_whenEvaluate_givenInvalidUtf8Line() {
+    //Given
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    content.write("{\"cargo\":{\"weight\":1200}}\n".getBytes(StandardCharsets.UTF_8));
+    content.write("{\"cargo\":{\"weight\":1300,\"note\":\"".getBytes(StandardCharsets.UTF_8));
+    content.write(new byte[]{(byte) 0xC3, (byte) 0x28});
+    content.write("\"}}\n{\"cargo\":{\"weight\":800}}\n".getBytes(StandardCharsets.UTF_8));
+    Path input = Files.write(directory.resolve("input.ndjson"), content.toByteArray());
+    Path output = directory.resolve("output.ndjson");
+
+    //When
+    NdjsonBulkEvaluator.Summary summary = new NdjsonBulkEvaluator().evaluate(RULE, input, output);
+
+    //Then
+    assertThat(summary.getRecords()).isEqualTo(3);
+    assertThat(summary.getMatches()).isEqualTo(1);
+    assertThat(summary.getErrors()).isEqualTo(1);
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(0)).isEqualTo("{\"value\":true}");
+    assertThat(lines.get(1)).startsWith("{\"error\":\"Invalid UTF-8 in the input file");
+    assertThat(lines.get(2)).isEqualTo("{\"value\":false}");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldWriteEmptyOutput_whenEvaluate_givenEmptyFile() {
+    //Given
+    Path input = write("");
+    Path output = directory.resolve("output.ndjson");
+
+    //When
+    NdjsonBulkEvaluator.Summary summary = new NdjsonBulkEvaluator().evaluate(RULE, input, output);
+
+    //Then
+    assertThat(summary.getRecords()).isZero();
+    assertThat(Files.size(output)).isZero();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "{\"var\":[\"cargo.weight\",0]}",
+    "{\"missing\":[\"cargo.weight\",\"cargo.volume\"]}",
+    "{\"var\":{\"cat\":[\"cargo.\",{\"var\":\"unit\"}]}}"
+  })
+  @SneakyThrows
+  void shouldWriteSameResultAsFullyParsedRecord_whenEvaluate_givenRuleReferencingDataByName(String expression) {
+    //Given
+    CompiledRule rule = new RuleMakerJsonLogic().compile(expression);
+    String record = "{\"cargo\":{\"weight\":1200},\"unit\":\"weight\"}";
+    Path input = write(record + "\n");
+    Path output = directory.resolve("output.ndjson");
+
+    //When
+    NdjsonBulkEvaluator.Summary summary = new NdjsonBulkEvaluator().evaluate(rule, input, output);
+
+    //Then
+    assertThat(summary.getErrors()).isZero();
+    assertThat(Files.readAllLines(output, StandardCharsets.UTF_8))
+      .containsExactly(RuleMaker.gson.toJson(Map.of("value", rule.evaluate(RuleMaker.gson.fromJson(record, Map.class)))));
+  }
+
+  @Test
+  void shouldThrowException_whenBuild_givenNonPositiveChunkSize() {
+    //Given
+    NdjsonBulkEvaluator.NdjsonBulkEvaluatorBuilder builder = NdjsonBulkEvaluator.builder().chunkSize(0);
+
+    //When //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Chunk size must be positive, was 0");
+  }
+
+  @SneakyThrows
+  private Path write(String content) {
+    return Files.writeString(directory.resolve("input.ndjson"), content, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,189 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ObjectDataUnitTest {
+
+  private static final Shipment SHIPMENT = new Shipment(
+    new Cargo(1200, true, null),
+    List.of(new Leg("DEHAM", LocalDate.of(2020, 1, 1)), new Leg("NLRTM", LocalDate.of(2020, 1, 3))),
+    Direction.EXPORT);
+
+  @Test
+  void shouldReadProperties_whenGet_givenObject() {
+    //Given
+    Map<String, Object> sut = ObjectData.of(SHIPMENT);
+
+    //When
+    Object cargo = sut.get("cargo");
+
+    //Then
+    assertThat(sut).containsOnlyKeys("cargo", "legs", "direction", "URL");
+    assertThat(sut.get("direction")).isEqualTo("EXPORT");
+    Map<String, Object> expectedCargo = new HashMap<>();
+    expectedCargo.put("weight", 1200);
+    expectedCargo.put("dangerous", true);
+    expectedCargo.put("description", null);
+    assertThat(cargo).isEqualTo(expectedCargo);
+    assertThat((List<?>) sut.get("legs")).first().isEqualTo(Map.of("port", "DEHAM", "eta", LocalDate.of(2020, 1, 1)));
+    assertThat(((Map<?, ?>) cargo).containsKey("description")).isTrue();
+    assertThat(sut.containsKey("missing")).isFalse();
+  }
+
+  @Test
+  void shouldPreferIsAccessor_whenGet_givenIsAndGetAccessorsOfSameProperty() {
+    //Given
+    Container container = new Container();
+
+    //When
+    Map<String, Object> sut = ObjectData.of(container);
+
+    //Then
+    assertThat(sut.get("active")).isEqualTo(true);
+    assertThat(sut.get("URL")).isEqualTo("upper");
+    assertThat(sut.get("url")).isEqualTo("lower");
+    assertThat(sut.keySet()).containsExactly("URL", "active", "url", "id");
+  }
+
+  @ParameterizedTest
+  @EnumSource(RuleEngine.class)
+  void shouldEvaluateRule_whenEvaluateObject_givenObject(RuleEngine engine) {
+    //Given
+    CompiledRule rule = new RuleMakerJsonLogic(engine).compile(RuleMaker.and(
+      RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(1000)),
+      RuleMaker.var("cargo.dangerous"),
+      RuleMaker.eq(RuleMaker.var("legs.1.port"), RuleMaker.literal("NLRTM")),
+      RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT")),
+      RuleMaker.eq(RuleMaker.dateDiff(RuleMaker.var("legs.1.eta"), RuleMaker.var("legs.0.eta"),
+        RuleMaker.literal("CALENDAR_DAYS")), RuleMaker.literal(2))));
+
+    //When
+    Object result = rule.evaluateObject(SHIPMENT);
+
+    //Then
+    assertThat(result).isEqualTo(true);
+  }
+
+  @Test
+  void shouldTreatNullPropertyAsPresent_whenEvaluateObject_givenNullValue() {
+    //Given
+    RuleMaker rule = RuleMaker.eq(RuleMaker.var("cargo.description"), RuleMaker.literal(null));
+
+    //When
+    Object result = rule.evaluateObject(SHIPMENT);
+
+    //Then
+    assertThat(result).isEqualTo(true);
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluateObject_givenUnknownProperty() {
+    //Given
+    RuleMaker rule = RuleMaker.gt(RuleMaker.var("cargo.volume"), RuleMaker.literal(10));
+
+    //When //Then
+    assertThatThrownBy(() -> rule.evaluateObject(SHIPMENT))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessageContaining("cargo.volume");
+  }
+
+  @Test
+  void shouldReadObjectValues_whenEvaluateObject_givenMapOfObjects() {
+    //Given
+    String expression = RuleMaker.gt(RuleMaker.var("shipment.cargo.weight"), RuleMaker.literal(1000)).toJson();
+
+    //When
+    Object result = RuleMaker.evaluateObject(expression, Map.of("shipment", SHIPMENT));
+
+    //Then
+    assertThat(result).isEqualTo(true);
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluateObject_givenScalar() {
+    //Given
+    RuleMaker rule = RuleMaker.var("");
+
+    //When //Then
+    assertThatThrownBy(() -> rule.evaluateObject("DEHAM"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Expected an object with properties but was java.lang.String");
+  }
+
+  private enum Direction {
+    EXPORT
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static class Shipment {
+
+    private final Cargo cargo;
+    private final List<Leg> legs;
+    private final Direction direction;
+
+    public String getURL() {
+      return "https://example.com";
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Cargo {
+
+    private final int weight;
+    private final boolean dangerous;
+    private final String description;
+
+    public int getWeight() {
+      return weight;
+    }
+
+    public boolean isDangerous() {
+      return dangerous;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  private static class Container {
+
+    public final String id = "HLBU1234567";
+
+    public boolean getActive() {
+      return false;
+    }
+
+    public boolean isActive() {
+      return true;
+    }
+
+    public String getUrl() {
+      return "lower";
+    }
+
+    public String getURL() {
+      return "upper";
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Leg {
+
+    public final String port;
+    public final LocalDate eta;
+  }
+}
@@ -0,0 +1,56 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RuleEngineUnitTest {
+
+  @AfterEach
+  void clearProperty() {
+    System.clearProperty(RuleEngine.SYSTEM_PROPERTY);
+  }
+
+  @Test
+  void shouldReturnInterpreter_whenDefaultEngine_givenNoProperty() {
+    //Given
+    System.clearProperty(RuleEngine.SYSTEM_PROPERTY);
+
+    //When
+    RuleEngine engine = RuleEngine.defaultEngine();
+
+    //Then
+    assertThat(engine).isEqualTo(RuleEngine.INTERPRETER);
+  }
+
+  @Test
+  void shouldReturnConfiguredEngine_whenDefaultEngine_givenPropertyInAnyCase() {
+    //Given
+    System.setProperty(RuleEngine.SYSTEM_PROPERTY, " closure ");
+
+    //When
+    RuleEngine engine = RuleEngine.defaultEngine();
+
+    //Then
+    assertThat(engine).isEqualTo(RuleEngine.CLOSURE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"closures", "jit", "CLOSURE,ADAPTIVE"})
+  void shouldFallBackToInterpreter_whenDefaultEngine_givenInvalidProperty(String value) {
+    //Given
+    System.setProperty(RuleEngine.SYSTEM_PROPERTY, value);
+
+    //When
+    RuleMakerJsonLogic jsonLogic = new RuleMakerJsonLogic();
+
+    //Then
+    assertThat(RuleEngine.defaultEngine()).isEqualTo(RuleEngine.INTERPRETER);
+    assertThat(jsonLogic.getEngine()).isEqualTo(RuleEngine.INTERPRETER);
+    assertThat(jsonLogic.compile(RuleMaker.literal(true)).evaluate(Map.of())).isEqualTo(true);
+  }
+}
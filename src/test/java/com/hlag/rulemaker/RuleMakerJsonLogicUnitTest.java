@@ -0,0 +1,160 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.cache.CacheStats;
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import com.hlag.rulemaker.expression.DayType;
+import com.hlag.rulemaker.expression.HolidayCalendar;
+import com.hlag.rulemaker.expression.NumericMode;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class RuleMakerJsonLogicUnitTest {
+
+  @Test
+  @SneakyThrows
+  void shouldCountHitsAndMisses_whenApply_givenRepeatedExpression() {
+    //Given
+    RuleMakerJsonLogic sut = new RuleMakerJsonLogic();
+
+    //When
+    sut.apply("{\"+\":[1,2]}", null);
+    sut.apply("{\"+\":[1,2]}", null);
+    sut.apply("{\"+\":[1,3]}", null);
+
+    //Then
+    CacheStats stats = sut.getParseCacheStats();
+    assertThat(stats.hitCount()).isEqualTo(1);
+    assertThat(stats.missCount()).isEqualTo(2);
+    assertThat(sut.getParseCacheSize()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReuseCompiledRule_whenCompile_givenSameExpression() {
+    //Given
+    RuleMakerJsonLogic sut = new RuleMakerJsonLogic();
+    String json = "{\"and\":[{\"var\":\"shipment.reefer\"},{\">\":[{\"var\":\"weight\"},1000]}]}";
+
+    //When
+    CompiledRule first = sut.compile(json);
+    CompiledRule second = sut.compile(json);
+
+    //Then
+    assertThat(second).isSameAs(first);
+    assertThat(first.getVariables()).containsExactlyInAnyOrder("shipment.reefer", "weight");
+    assertThat(sut.getParseCacheStats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportNestedVariable_whenEvaluate_givenCachedRuleAndMissingProperty() {
+    //Given
+    RuleMakerJsonLogic sut = new RuleMakerJsonLogic();
+    String json = "{\"and\":[{\"var\":\"shipment.reefer\"},{\">\":[{\"var\":\"weight\"},1000]}]}";
+    sut.compile(json).evaluate(Map.of("shipment", Map.of("reefer", true), "weight", 1200));
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.compile(json).evaluate(Map.of("shipment", Map.of(), "weight", 1200)))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessage("Missing variables: [shipment.reefer]");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldEvictExpressions_whenParse_givenMaximumSizeReached() {
+    //Given
+    RuleMakerJsonLogic sut = RuleMakerJsonLogic.builder().parseCacheMaximumSize(2L).build();
+
+    //When
+    for (int i = 0; i < 10; i++) {
+      sut.parse("{\"+\":[1," + i + "]}");
+    }
+
+    //Then
+    assertThat(sut.getParseCacheSize()).isLessThanOrEqualTo(2);
+    assertThat(sut.getParseCacheStats().evictionCount()).isGreaterThanOrEqualTo(8);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldEvictExpressions_whenParse_givenMaximumWeightReached() {
+    //Given
+    RuleMakerJsonLogic sut = RuleMakerJsonLogic.builder().parseCacheMaximumWeight(30L).build();
+
+    //When
+    for (int i = 0; i < 10; i++) {
+      sut.parse("{\"+\":[1," + i + "]}");
+    }
+
+    //Then
+    assertThat(sut.getParseCacheSize()).isLessThanOrEqualTo(2);
+    assertThat(sut.getParseCacheStats().evictionCount()).isGreaterThanOrEqualTo(8);
+  }
+
+  @Test
+  void shouldCalculateInNumericMode_whenEvaluate_givenFastJsonLogic() {
+    //Given
+    RuleMakerJsonLogic exact = new RuleMakerJsonLogic();
+    RuleMakerJsonLogic fast = RuleMakerJsonLogic.builder().numericMode(NumericMode.FAST).build();
+    String json = "{\"*\":[{\"var\":\"score\"},0.5]}";
+
+    //When
+    Object exactValue = exact.compile(json).evaluate(Map.of("score", 3));
+    Object fastValue = fast.compile(json).evaluate(Map.of("score", 3));
+
+    //Then
+    assertThat(exact.getNumericMode()).isEqualTo(NumericMode.EXACT);
+    assertThat(exactValue).isEqualTo(new BigDecimal("1.50"));
+    assertThat(fastValue).isEqualTo(1.5);
+  }
+
+  @Test
+  void shouldCalculateIntegralValuesExactly_whenEvaluate_givenFastJsonLogicAndIntegralData() {
+    //Given
+    RuleMakerJsonLogic fast = RuleMakerJsonLogic.builder().numericMode(NumericMode.FAST).build();
+    CompiledRule rule = fast.compile("{\"+\":[{\"var\":\"id\"},1]}");
+
+    //When
+    Object small = rule.evaluate(Map.of("id", 41));
+    Object large = rule.evaluate(Map.of("id", 1L << 53));
+
+    //Then
+    assertThat(small).isEqualTo(42.0);
+    assertThat(large).isEqualTo(new BigDecimal("9007199254740993.0"));
+  }
+
+  @Test
+  void shouldUseHolidayCalendar_whenEvaluate_givenCalendarOfJsonLogic() {
+    //Given
+    RuleMakerJsonLogic sut = RuleMakerJsonLogic.builder()
+      .holidayCalendar(HolidayCalendar.of("DEHAM", List.of(LocalDate.of(2024, 5, 1))))
+      .build();
+    String json = "{\"dateDiff\":[\"2024-05-03\",{\"var\":\"today\"},\"" + DayType.BUSINESS_DAYS.withCalendar("DEHAM") + "\"]}";
+
+    //When
+    Object value = sut.compile(json).evaluate(Map.of("today", "2024-04-29"));
+
+    //Then
+    assertThat(value).isEqualTo(3L);
+  }
+
+  @Test
+  void shouldThrowException_whenBuild_givenMaximumSizeAndWeight() {
+    //Given
+    RuleMakerJsonLogic.RuleMakerJsonLogicBuilder builder = RuleMakerJsonLogic.builder()
+      .parseCacheMaximumSize(10L)
+      .parseCacheMaximumWeight(10L);
+
+    //When
+    //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Either the maximum size or the maximum weight of the parse cache can be set");
+  }
+}
@@ -0,0 +1,191 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import com.hlag.rulemaker.expression.NumericMode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicArray;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicOperation;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicPrimitive;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicVariable;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class RuleOptimizerUnitTest {
+
+  private static final RuleMaker A = RuleMaker.var("a");
+  private static final RuleMaker B = RuleMaker.var("b");
+  private static final RuleMaker C = RuleMaker.var("c");
+
+  @Test
+  void shouldFlattenAndRemoveConstants_whenOptimize_givenNestedAndWithTrue() {
+    //Given
+    RuleMaker rule = RuleMaker.and(RuleMaker.literal(true), RuleMaker.and(A, B), RuleMaker.literal(true), C);
+
+    //When
+    String optimized = optimize(rule, new RuleMakerJsonLogic());
+
+    //Then
+    assertThat(optimized).isEqualTo("{\"and\":[{\"var\":\"a\"},{\"var\":\"b\"},{\"var\":\"c\"}]}");
+  }
+
+  @Test
+  void shouldRemoveDeadArguments_whenOptimize_givenDecidingConstant() {
+    //Given
+    RuleMaker and = RuleMaker.and(A, RuleMaker.literal(0), B);
+    RuleMaker or = RuleMaker.or(RuleMaker.literal(false), A, RuleMaker.literal("yes"), B);
+
+    //When //Then
+    assertThat(optimize(and, new RuleMakerJsonLogic())).isEqualTo("{\"and\":[{\"var\":\"a\"},0.0]}");
+    assertThat(optimize(or, new RuleMakerJsonLogic())).isEqualTo("{\"or\":[{\"var\":\"a\"},\"yes\"]}");
+  }
+
+  @Test
+  void shouldRemoveDoubleNegation_whenOptimize_givenNegatedNegation() {
+    //Given
+    RuleMaker negatedVariable = RuleMaker.negate(RuleMaker.negate(A));
+    RuleMaker negatedComparison = RuleMaker.negate(RuleMaker.negate(RuleMaker.gt(A, RuleMaker.literal(1))));
+
+    //When //Then
+    assertThat(optimize(negatedVariable, new RuleMakerJsonLogic())).isEqualTo("{\"!!\":[{\"var\":\"a\"}]}");
+    assertThat(optimize(negatedComparison, new RuleMakerJsonLogic())).isEqualTo("{\">\":[{\"var\":\"a\"},1.0]}");
+  }
+
+  @Test
+  void shouldRemoveDeadBranches_whenOptimize_givenConstantConditions() {
+    //Given
+    RuleMaker alwaysThen = RuleMaker.ifThenElse(RuleMaker.eq(RuleMaker.literal("EU"), RuleMaker.literal("EU")), A, B);
+    RuleMaker neverThen = RuleMaker.ifThenElse(RuleMaker.literal(false), A, B);
+    RuleMaker variableCondition = RuleMaker.ifThenElse(C, A, B);
+
+    //When //Then
+    assertThat(optimize(alwaysThen, new RuleMakerJsonLogic())).isEqualTo("{\"var\":\"a\"}");
+    assertThat(optimize(neverThen, new RuleMakerJsonLogic())).isEqualTo("{\"var\":\"b\"}");
+    assertThat(optimize(variableCondition, new RuleMakerJsonLogic()))
+      .isEqualTo("{\"if\":[{\"var\":\"c\"},{\"var\":\"a\"},{\"var\":\"b\"}]}");
+  }
+
+  @Test
+  void shouldKeepExactBigDecimal_whenOptimize_givenConstantMath() {
+    //Given
+    RuleMaker sum = RuleMaker.add(RuleMaker.literal("1.10"), RuleMaker.literal("2.20"));
+    RuleMaker comparison = RuleMaker.gt(RuleMaker.mul(RuleMaker.literal(2), RuleMaker.literal(3)), RuleMaker.literal(5));
+
+    //When //Then
+    assertThat(optimize(sum, new RuleMakerJsonLogic())).isEqualTo("{\"+\":[\"3.30\"]}");
+    assertThat(sum.evaluate(Map.of())).isEqualTo(new BigDecimal("3.30"));
+    assertThat(optimize(comparison, new RuleMakerJsonLogic())).isEqualTo("true");
+  }
+
+  @Test
+  void shouldFlattenFirstArgument_whenOptimize_givenNestedSumInExactModeOnly() {
+    //Given
+    RuleMaker rule = RuleMaker.add(RuleMaker.add(A, B), C);
+    RuleMaker nestedLast = RuleMaker.add(A, RuleMaker.add(B, C));
+
+    //When //Then
+    assertThat(optimize(rule, new RuleMakerJsonLogic())).isEqualTo("{\"+\":[{\"var\":\"a\"},{\"var\":\"b\"},{\"var\":\"c\"}]}");
+    assertThat(optimize(nestedLast, new RuleMakerJsonLogic())).isEqualTo(toJson(node(nestedLast)));
+    assertThat(optimize(rule, RuleMakerJsonLogic.builder().numericMode(NumericMode.FAST).build())).isEqualTo(toJson(node(rule)));
+  }
+
+  @Test
+  void shouldKeepOperation_whenOptimize_givenConstantOperationWhichFails() {
+    //Given
+    RuleMaker rule = RuleMaker.div(RuleMaker.literal(1), RuleMaker.literal(3));
+
+    //When //Then
+    assertThat(optimize(rule, new RuleMakerJsonLogic())).isEqualTo(toJson(node(rule)));
+  }
+
+  @Test
+  void shouldRequireVariablesOfRemovedBranches_whenCompile_givenOptimizedRule() {
+    //Given
+    RuleMaker rule = RuleMaker.and(RuleMaker.literal(false), A);
+
+    //When
+    CompiledRule compiled = new RuleMakerJsonLogic().compile(rule);
+
+    //Then
+    assertThat(toJson(compiled.getNode())).isEqualTo("false");
+    assertThat(compiled.getVariables()).containsExactly("a");
+    assertThatThrownBy(() -> compiled.evaluate(Map.of()))
+      .isInstanceOf(RuleMakerMissingVariablesException.class);
+  }
+
+  @Test
+  void shouldEvaluateLikeOriginal_whenEvaluate_givenOptimizedRules() {
+    //Given
+    List<RuleMaker> rules = List.of(
+      RuleMaker.and(RuleMaker.literal(1), RuleMaker.or(RuleMaker.literal(0), A), RuleMaker.and(B, RuleMaker.literal("x"))),
+      RuleMaker.or(RuleMaker.and(A, B), RuleMaker.literal(""), C),
+      RuleMaker.negate(RuleMaker.negate(RuleMaker.negate(A))),
+      RuleMaker.ifThenElse(RuleMaker.lt(RuleMaker.literal(1), RuleMaker.literal(2)), RuleMaker.add(A, RuleMaker.literal("0.50")), B),
+      RuleMaker.mul(RuleMaker.mul(A, RuleMaker.literal(1.5)), RuleMaker.add(RuleMaker.literal(1), RuleMaker.literal(2))),
+      RuleMaker.cat(RuleMaker.literal("lane-"), RuleMaker.substr(RuleMaker.literal("ASIA-EU"), RuleMaker.literal(0), RuleMaker.literal(4))),
+      RuleMaker.in(RuleMaker.literal("EU"), RuleMaker.cat(RuleMaker.literal("ASIA-"), RuleMaker.literal("EU"))));
+    List<Map<String, Object>> data = List.of(
+      data(0, 1, 2), data(3, 0, "c"), data(2.5, "1.25", null), data(-1, true, false));
+
+    for (RuleEngine engine : RuleEngine.values()) {
+      RuleMakerJsonLogic optimizing = RuleMakerJsonLogic.builder().engine(engine).build();
+      RuleMakerJsonLogic plain = RuleMakerJsonLogic.builder().engine(engine).optimize(false).build();
+      for (RuleMaker rule : rules) {
+        for (Map<String, Object> values : data) {
+          //When
+          Object expected = evaluate(plain, rule, values);
+          Object actual = evaluate(optimizing, rule, values);
+
+          //Then
+          assertThat(actual).as("%s with %s on %s", rule.toJson(), values, engine).isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  private static Object evaluate(RuleMakerJsonLogic jsonLogic, RuleMaker rule, Map<String, Object> data) {
+    try {
+      return jsonLogic.compile(rule).evaluate(data);
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  private static Map<String, Object> data(Object a, Object b, Object c) {
+    Map<String, Object> data = new HashMap<>();
+    data.put("a", a);
+    data.put("b", b);
+    data.put("c", c);
+    return data;
+  }
+
+  private static String optimize(RuleMaker rule, RuleMakerJsonLogic jsonLogic) {
+    return toJson(RuleOptimizer.optimize(node(rule), jsonLogic));
+  }
+
+  @SneakyThrows
+  private static JsonLogicNode node(RuleMaker rule) {
+    return ExpressionTree.toNode(rule.expression);
+  }
+
+  private static String toJson(JsonLogicNode node) {
+    switch (node.getType()) {
+      case PRIMITIVE:
+        return RuleMaker.gson.toJson(((JsonLogicPrimitive<?>) node).getValue());
+      case VARIABLE:
+        return "{\"var\":" + toJson(((JsonLogicVariable) node).getKey()) + "}";
+      case ARRAY:
+        return ((JsonLogicArray) node).stream().map(RuleOptimizerUnitTest::toJson).collect(Collectors.joining(",", "[", "]"));
+      default:
+        JsonLogicOperation operation = (JsonLogicOperation) node;
+        return "{" + RuleMaker.gson.toJson(operation.getOperator()) + ":" + toJson(operation.getArguments()) + "}";
+    }
+  }
+}
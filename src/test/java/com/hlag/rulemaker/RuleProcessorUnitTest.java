@@ -0,0 +1,154 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class RuleProcessorUnitTest {
+
+  private static final CompiledRule RULE = RuleMaker.gt(RuleMaker.var("weight"), RuleMaker.literal(1000)).compile();
+
+  @Test
+  @SneakyThrows
+  void shouldPublishResultsInOrder_whenSubscribed_givenOrderedParallelBatches() {
+    //Given
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    RuleProcessor sut = RuleProcessor.builder().rule(RULE).executor(executor).batchSize(8).build();
+    CollectingSubscriber subscriber = new CollectingSubscriber();
+    sut.subscribe(subscriber);
+
+    //When
+    publish(sut, 50);
+    subscriber.completion.get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    //Then
+    assertThat(subscriber.results).extracting(result -> result.getData().get("weight"))
+      .containsExactlyElementsOf(weights(50));
+    assertThat(subscriber.results).extracting(RuleProcessor.Result::getValue)
+      .containsExactlyElementsOf(weights(50).stream().map(weight -> weight > 1000).collect(Collectors.toList()));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldPublishAllMatches_whenSubscribed_givenUnorderedParallelBatches() {
+    //Given
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    RuleProcessor sut = RuleProcessor.builder().rule(RULE).executor(executor).batchSize(5).ordered(false).matchesOnly(true).build();
+    CollectingSubscriber subscriber = new CollectingSubscriber();
+    sut.subscribe(subscriber);
+
+    //When
+    publish(sut, 50);
+    subscriber.completion.get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    //Then
+    assertThat(subscriber.results).extracting(result -> result.getData().get("weight"))
+      .containsExactlyInAnyOrderElementsOf(weights(50).stream().filter(weight -> weight > 1000).collect(Collectors.toList()));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldRequestOnlyOneBatch_whenSubscribed_givenNoDownstreamDemand() {
+    //Given
+    RuleProcessor sut = RuleProcessor.builder().rule(RULE).batchSize(4).build();
+    List<Long> requests = new CopyOnWriteArrayList<>();
+
+    //When
+    sut.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        requests.add(n);
+      }
+
+      @Override
+      public void cancel() {
+        // Nothing to cancel
+      }
+    });
+    for (int i = 0; i < 3; i++) {
+      sut.onNext(Map.of("weight", i));
+    }
+
+    //Then
+    assertThat(requests).containsExactly(4L);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldCompleteExceptionally_whenSubscribed_givenFailingRecord() {
+    //Given
+    RuleProcessor sut = RuleProcessor.builder().rule(RULE).build();
+    CollectingSubscriber subscriber = new CollectingSubscriber();
+    sut.subscribe(subscriber);
+
+    //When
+    try (SubmissionPublisher<Map<String, Object>> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(sut);
+      publisher.submit(Map.of("weight", 1200));
+      publisher.submit(Map.of());
+      publisher.submit(Map.of("weight", 1300));
+    }
+
+    //Then
+    assertThat(subscriber.completion).failsWithin(10, TimeUnit.SECONDS)
+      .withThrowableThat().withCauseInstanceOf(RuleMakerMissingVariablesException.class);
+  }
+
+  private static void publish(RuleProcessor sut, int count) {
+    try (SubmissionPublisher<Map<String, Object>> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(sut);
+      for (int weight : weights(count)) {
+        publisher.submit(Map.of("weight", weight));
+      }
+    }
+  }
+
+  private static List<Integer> weights(int count) {
+    List<Integer> weights = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      weights.add(i * 40);
+    }
+    return weights;
+  }
+
+  private static class CollectingSubscriber implements Flow.Subscriber<RuleProcessor.Result> {
+
+    private final List<RuleProcessor.Result> results = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(RuleProcessor.Result item) {
+      results.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      completion.complete(null);
+    }
+  }
+}
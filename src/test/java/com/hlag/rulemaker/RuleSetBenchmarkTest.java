@@ -0,0 +1,78 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares a {@link RuleSet} with evaluating the same rules one by one. Run with {@code mvn test -Dtest=RuleSetBenchmarkTest
+ * -Drulemaker.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "rulemaker.benchmark", matches = "true")
+class RuleSetBenchmarkTest {
+
+  private static final int RULES = 800;
+  private static final int WARM_UP_ROUNDS = 2_000;
+  private static final int MEASURED_ROUNDS = 5_000;
+
+  private static final Map<String, Object> DATA = Map.of(
+    "cargo", Map.of("weight", 19_000, "tare", 2_200, "commodity", "STEEL"),
+    "route", Map.of("distance", 420, "origin", "DEHAM"),
+    "direction", "EXPORT");
+
+  @Test
+  void shouldCompareRuleSetWithIndependentEvaluations() {
+    //Given
+    Map<String, String> expressions = createExpressions();
+    RuleSet ruleSet = RuleSet.builder().expressions(expressions).build();
+    RuleMakerJsonLogic closures = new RuleMakerJsonLogic(RuleEngine.CLOSURE);
+    List<CompiledRule> compiledRules = new ArrayList<>();
+    expressions.values().forEach(expression -> compiledRules.add(closures.compile(expression)));
+
+    //When
+    long ruleSetNanos = measure(() -> ruleSet.evaluate(DATA));
+    long compiledNanos = measure(() -> compiledRules.forEach(rule -> rule.evaluate(DATA)));
+    long staticNanos = measure(() -> expressions.values().forEach(expression -> RuleMaker.evaluate(expression, DATA)));
+
+    //Then
+    System.out.printf("%d rules per input: rule set %,d ns, compiled rules %,d ns, RuleMaker.evaluate %,d ns%n",
+      RULES, ruleSetNanos, compiledNanos, staticNanos);
+    RuleSetResult result = ruleSet.evaluate(DATA);
+    int i = 0;
+    for (String id : expressions.keySet()) {
+      assertThat(result.get(id)).isEqualTo(compiledRules.get(i++).evaluate(DATA));
+    }
+  }
+
+  private static Map<String, String> createExpressions() {
+    RuleMaker totalWeight = RuleMaker.add(RuleMaker.var("cargo.weight"), RuleMaker.var("cargo.tare"));
+    RuleMaker export = RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT"));
+    RuleMaker longHaul = RuleMaker.gt(RuleMaker.var("route.distance"), RuleMaker.literal(300));
+    Map<String, String> expressions = new LinkedHashMap<>();
+    for (int i = 0; i < RULES; i++) {
+      RuleMaker rule = RuleMaker.and(
+        export,
+        RuleMaker.gt(totalWeight, RuleMaker.literal(i * 25)),
+        RuleMaker.or(longHaul, RuleMaker.eq(RuleMaker.var("cargo.commodity"), RuleMaker.literal("C" + i % 20))),
+        RuleMaker.eq(RuleMaker.var("route.origin"), RuleMaker.literal(i % 2 == 0 ? "DEHAM" : "NLRTM")));
+      expressions.put("rule" + i, rule.toJson());
+    }
+    return expressions;
+  }
+
+  private static long measure(Runnable evaluation) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      evaluation.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      evaluation.run();
+    }
+    return (System.nanoTime() - start) / MEASURED_ROUNDS;
+  }
+}
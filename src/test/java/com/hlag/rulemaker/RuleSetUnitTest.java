@@ -0,0 +1,204 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hlag.rulemaker.exception.RuleMakerMissingVariablesException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class RuleSetUnitTest {
+
+  private static final RuleMaker TOTAL_WEIGHT = RuleMaker.add(RuleMaker.var("cargo.weight"), RuleMaker.var("cargo.tare"));
+  private static final RuleMaker HEAVY = RuleMaker.gt(TOTAL_WEIGHT, RuleMaker.literal(20_000));
+  private static final RuleMaker HEAVY_EXPORT = RuleMaker.and(HEAVY, RuleMaker.eq(RuleMaker.var("direction"), RuleMaker.literal("EXPORT")));
+  private static final String SURCHARGE = RuleMaker.ifThenElse(HEAVY, RuleMaker.mul(TOTAL_WEIGHT, RuleMaker.literal(0.01)),
+    RuleMaker.literal(0)).toJson();
+
+  private static final Map<String, Object> DATA = Map.of(
+    "cargo", Map.of("weight", 19_000, "tare", 2_200),
+    "direction", "EXPORT");
+
+  @Test
+  void shouldReturnResultPerRule_whenEvaluate_givenData() {
+    //Given
+    RuleSet sut = RuleSet.builder()
+      .rule("heavy", HEAVY)
+      .rule("heavyExport", HEAVY_EXPORT)
+      .expression("surcharge", SURCHARGE)
+      .build();
+
+    //When
+    RuleSetResult result = sut.evaluate(DATA);
+
+    //Then
+    assertThat(sut.getIds()).containsExactly("heavy", "heavyExport", "surcharge");
+    assertThat(result.getValues()).containsOnlyKeys("heavy", "heavyExport", "surcharge");
+    assertThat(result.get("heavy")).isEqualTo(HEAVY.evaluate(DATA));
+    assertThat(result.get("heavyExport")).isEqualTo(HEAVY_EXPORT.evaluate(DATA));
+    assertThat(result.get("surcharge")).isEqualTo(RuleMaker.evaluate(SURCHARGE, DATA));
+    assertThat(result.getMatches()).containsExactly("heavy", "heavyExport", "surcharge");
+    assertThat(result.hasErrors()).isFalse();
+  }
+
+  @Test
+  void shouldEvaluateSharedSubexpressionsOnce_whenEvaluate_givenRulesWithCommonParts() {
+    //Given
+    RuleSet sut = RuleSet.builder()
+      .rule("heavy", HEAVY)
+      .rule("heavyExport", HEAVY_EXPORT)
+      .expression("surcharge", SURCHARGE)
+      .build();
+    Frame frame = sut.newFrame().set("cargo.weight", 19_000).set("cargo.tare", 2_200).set("direction", "IMPORT");
+
+    //When
+    RuleSetResult result = sut.evaluate(frame);
+
+    //Then
+    assertThat(result.getMatches()).containsExactly("heavy", "surcharge");
+    assertThat(sut.getSlots()).containsExactly("cargo.tare", "cargo.weight", "direction");
+    // The total weight and the heavy check are shared, and both have been evaluated for this frame
+    assertThat(frame.isShared(0)).isTrue();
+    assertThat(frame.isShared(1)).isTrue();
+  }
+
+  @Test
+  void shouldFindSharedNodes_whenFindSharedNodes_givenEqualSubtrees() {
+    //Given
+    JsonLogicNode heavy = new RuleMakerJsonLogic().compile(HEAVY).getNode();
+    JsonLogicNode surcharge = new RuleMakerJsonLogic().compile(SURCHARGE).getNode();
+
+    //When
+    Map<JsonLogicNode, Integer> sharedNodes = ClosureCompiler.findSharedNodes(List.of(heavy, surcharge));
+
+    //Then
+    assertThat(sharedNodes).hasSize(5);
+    assertThat(sharedNodes.values()).containsOnly(0, 1);
+    assertThat(sharedNodes.get(heavy)).isNotNull();
+  }
+
+  @Test
+  void shouldKeepOtherResults_whenEvaluate_givenRuleWithMissingVariable() {
+    //Given
+    RuleSet sut = RuleSet.builder()
+      .rule("heavy", HEAVY)
+      .rule("reefer", RuleMaker.var("cargo.reefer"))
+      .build();
+
+    //When
+    RuleSetResult result = sut.evaluate(DATA);
+
+    //Then
+    assertThat(result.getValues()).containsOnlyKeys("heavy");
+    assertThat(result.matches("heavy")).isTrue();
+    assertThat(result.getErrors()).containsOnlyKeys("reefer");
+    assertThat(result.getErrors().get("reefer"))
+      .isInstanceOf(RuleMakerMissingVariablesException.class)
+      .hasMessage("Missing variables: [cargo.reefer]");
+  }
+
+  @Test
+  void shouldReadVariable_whenEvaluate_givenVariableWithDefaultValue() {
+    //Given
+    String expression = "{\"+\":[{\"var\":[\"x\",0]},1]}";
+    RuleSet sut = RuleSet.builder()
+      .expression("r", expression)
+      .build();
+
+    //When
+    RuleSetResult present = sut.evaluate(Map.of("x", 5));
+    RuleSetResult absent = sut.evaluate(Map.of());
+    RuleSetResult frame = sut.evaluate(sut.newFrame().setDouble(sut.slotOf("x"), 5));
+
+    //Then
+    assertThat(sut.getSlots()).containsExactly("x");
+    assertThat((BigDecimal) present.get("r")).isEqualByComparingTo("6");
+    assertThat((BigDecimal) absent.get("r")).isEqualByComparingTo("1");
+    assertThat((BigDecimal) frame.get("r")).isEqualByComparingTo("6");
+    assertThat(present.get("r")).isEqualTo(RuleMaker.evaluate(expression, Map.of("x", 5)));
+    assertThat(absent.get("r")).isEqualTo(RuleMaker.evaluate(expression, Map.of()));
+    assertThat(absent.hasErrors()).isFalse();
+  }
+
+  @Test
+  void shouldLookUpDataByName_whenEvaluate_givenOperationReadingWholeData() {
+    //Given
+    RuleSet sut = RuleSet.builder()
+      .rule("missing", RuleMaker.missing(RuleMaker.literal("cargo.weight"), RuleMaker.literal("cargo.volume")))
+      .build();
+
+    //When
+    RuleSetResult result = sut.evaluate(DATA);
+
+    //Then
+    assertThat(result.get("missing")).isEqualTo(List.of("cargo.volume"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("buildersWithDuplicateId")
+  void shouldThrowException_whenBuild_givenDuplicateId(RuleSet.RuleSetBuilder builder) {
+    //Given //When //Then
+    assertThatThrownBy(builder::build)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Duplicate rule id 'heavy'");
+  }
+
+  @Test
+  void shouldReuseCompiledExpression_whenBuild_givenNoJsonLogic() {
+    //Given
+    String expression = RuleMaker.gt(RuleMaker.var("cargo.volume"), RuleMaker.literal(67)).toJson();
+    RuleMaker.compile(expression);
+    long hits = RuleMaker.RULE_MAKER_JSON_LOGIC.getParseCacheStats().hitCount();
+
+    //When
+    RuleSet.builder().expression("large", expression).build();
+
+    //Then
+    assertThat(RuleMaker.RULE_MAKER_JSON_LOGIC.getParseCacheStats().hitCount()).isGreaterThan(hits);
+  }
+
+  @Test
+  void shouldKeepOrderOfAddition_whenBuild_givenRulesAndExpressions() {
+    //Given
+    RuleSet.RuleSetBuilder builder = RuleSet.builder()
+      .expression("surcharge", SURCHARGE)
+      .rules(Map.of("heavy", HEAVY))
+      .rule("heavyExport", HEAVY_EXPORT)
+      .clearExpressions()
+      .expression("heavySurcharge", SURCHARGE);
+
+    //When
+    RuleSet sut = builder.build();
+
+    //Then
+    assertThat(sut.getIds()).containsExactly("heavy", "heavyExport", "heavySurcharge");
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenFrameOfRule() {
+    //Given
+    RuleSet sut = RuleSet.builder().rule("heavy", HEAVY).build();
+    Frame frame = HEAVY.compile().newFrame();
+
+    //When //Then
+    assertThatThrownBy(() -> sut.evaluate(frame))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("The frame belongs to another rule set");
+  }
+
+  private static Stream<RuleSet.RuleSetBuilder> buildersWithDuplicateId() {
+    return Stream.of(
+      RuleSet.builder().rule("heavy", HEAVY).expression("heavy", SURCHARGE),
+      RuleSet.builder().rule("heavy", HEAVY).rule("heavy", HEAVY_EXPORT),
+      RuleSet.builder().rules(Map.of("heavy", HEAVY)).rule("heavy", HEAVY_EXPORT),
+      RuleSet.builder().expressions(Map.of("heavy", SURCHARGE)).rules(Map.of("heavy", HEAVY)),
+      RuleSet.builder().expression("heavy", SURCHARGE).expression("heavy", SURCHARGE)
+    );
+  }
+}
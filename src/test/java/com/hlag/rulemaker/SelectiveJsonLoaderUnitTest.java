@@ -0,0 +1,143 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SelectiveJsonLoaderUnitTest {
+
+  @Test
+  @SneakyThrows
+  void shouldLoadOnlyReferencedPaths_whenRead_givenNestedDocument() {
+    //Given
+    SelectiveJsonLoader sut = new SelectiveJsonLoader(Set.of("cargo.weight", "route.legs.1.port"));
+    String json = "{\"cargo\":{\"weight\":1200,\"description\":\"Stahl\"},"
+      + "\"route\":{\"legs\":[{\"port\":\"DEHAM\"},{\"port\":\"NLRTM\",\"eta\":\"2020-01-01\"}]},"
+      + "\"ignored\":{\"deep\":[1,2,{\"x\":null}]}}";
+
+    //When
+    Map<String, Object> data = sut.read(new JsonReader(new StringReader(json)));
+
+    //Then
+    assertThat(data).containsOnlyKeys("cargo", "route");
+    assertThat(data.get("cargo")).isEqualTo(Map.of("weight", 1200.0));
+    assertThat(data.get("route")).isEqualTo(Map.of("legs", Arrays.asList(null, Map.of("port", "NLRTM"))));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldLoadWholeValue_whenRead_givenPathToObject() {
+    //Given
+    SelectiveJsonLoader sut = new SelectiveJsonLoader(Set.of("cargo"));
+    String json = "{\"cargo\":{\"weight\":1200,\"tags\":[\"a\",true,null]},\"other\":1}";
+
+    //When
+    Map<String, Object> data = sut.read(new JsonReader(new StringReader(json)));
+
+    //Then
+    assertThat(data).isEqualTo(Map.of("cargo", Map.of("weight", 1200.0, "tags", Arrays.asList("a", true, null))));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldLoadWholeDocument_whenRead_givenBlankVariable() {
+    //Given
+    SelectiveJsonLoader sut = new SelectiveJsonLoader(Set.of("", "cargo"));
+
+    //When
+    Map<String, Object> data = sut.read(new JsonReader(new StringReader("{\"a\":1,\"b\":[2]}")));
+
+    //Then
+    assertThat(data).isEqualTo(Map.of("a", 1.0, "b", List.of(2.0)));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldEvaluateLikeFullyParsedData_whenLoad_givenRuleAndStream() {
+    //Given
+    CompiledRule rule = RuleMaker.and(
+      RuleMaker.gt(RuleMaker.var("cargo.weight"), RuleMaker.literal(1000)),
+      RuleMaker.eq(RuleMaker.var("route.legs.0.port"), RuleMaker.literal("DEHAM"))).compile();
+    String json = "{\"cargo\":{\"weight\":1200,\"description\":\"Stahl für Hamburg\"},\"route\":{\"legs\":[{\"port\":\"DEHAM\"}]}}";
+    SelectiveJsonLoader sut = SelectiveJsonLoader.of(rule);
+
+    //When
+    Map<String, Object> data = sut.load(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+    //Then
+    assertThat(data).isEqualTo(Map.of("cargo", Map.of("weight", 1200.0), "route", Map.of("legs", List.of(Map.of("port", "DEHAM")))));
+    assertThat(rule.evaluate(data)).isEqualTo(rule.evaluate(RuleMaker.gson.fromJson(json, Map.class)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "{\"+\":[{\"var\":[\"cargo.weight\",0]},{\"var\":\"cargo.tare\"}]}",
+    "{\"missing\":[\"cargo.weight\",\"cargo.volume\"]}",
+    "{\"missing_some\":[1,[\"cargo.volume\",\"route.port\"]]}",
+    "{\"var\":{\"cat\":[\"cargo.\",{\"var\":\"unit\"}]}}"
+  })
+  @SneakyThrows
+  void shouldEvaluateLikeFullyParsedData_whenLoad_givenRuleReferencingDataByName(String expression) {
+    //Given
+    CompiledRule rule = new RuleMakerJsonLogic().compile(expression);
+    String json = "{\"cargo\":{\"weight\":1200,\"tare\":300},\"route\":{\"port\":\"DEHAM\"},\"unit\":\"weight\"}";
+    SelectiveJsonLoader sut = SelectiveJsonLoader.of(rule);
+
+    //When
+    Map<String, Object> data = sut.load(new StringReader(json));
+
+    //Then
+    assertThat(rule.evaluate(data)).isEqualTo(rule.evaluate(RuleMaker.gson.fromJson(json, Map.class)));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldLoadWholeDocument_whenLoad_givenRuleWithComputedVariableKey() {
+    //Given
+    CompiledRule rule = new RuleMakerJsonLogic().compile("{\"var\":{\"cat\":[\"cargo.\",{\"var\":\"unit\"}]}}");
+    SelectiveJsonLoader sut = SelectiveJsonLoader.of(rule);
+
+    //When
+    Map<String, Object> data = sut.load(new StringReader("{\"cargo\":{\"weight\":1200},\"unit\":\"weight\",\"other\":true}"));
+
+    //Then
+    assertThat(data).isEqualTo(Map.of("cargo", Map.of("weight", 1200.0), "unit", "weight", "other", true));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldLeaveVariableAbsent_whenLoad_givenDocumentWithoutVariable() {
+    //Given
+    SelectiveJsonLoader sut = new SelectiveJsonLoader(Set.of("cargo.volume"));
+
+    //When
+    Map<String, Object> data = sut.load(new StringReader("{\"cargo\":{\"weight\":1200}}"));
+
+    //Then
+    assertThat(data).isEqualTo(Map.of("cargo", Map.of()));
+  }
+
+  @Test
+  void shouldThrowException_whenRead_givenArray() {
+    //Given
+    SelectiveJsonLoader sut = new SelectiveJsonLoader(Set.of("a"));
+    JsonReader reader = new JsonReader(new StringReader("[1]"));
+
+    //When //Then
+    assertThatThrownBy(() -> sut.read(reader))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Expected a JSON object but was BEGIN_ARRAY");
+  }
+}
@@ -0,0 +1,105 @@
+package com.hlag.rulemaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class VariablePathUnitTest {
+
+  private static final Map<String, Object> DATA = createData();
+
+  private static Map<String, Object> createData() {
+    Map<String, Object> data = new HashMap<>();
+    data.put("weight", 1200);
+    data.put("nothing", null);
+    data.put("shipment", Map.of("lane", "ASIA-EU"));
+    data.put("containers", List.of(Map.of("size", 20), Map.of("size", 40)));
+    data.put("codes", new String[]{"DG", "RF"});
+    return data;
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "weight, true",
+    "nothing, true",
+    "shipment.lane, true",
+    "shipment.date, false",
+    "weight.value, false",
+    "containers.1.size, true",
+    "containers.2.size, false",
+    "containers.x.size, false",
+    "codes.0, true",
+    "codes.-1, false",
+    "'', true",
+    "' ', true",
+    "unknown, false"
+  })
+  void shouldCheckPresence_whenIsPresent_givenPath(String path, boolean expected) {
+    //Given
+    VariablePath sut = VariablePath.of(path);
+
+    //When
+    boolean present = sut.isPresent(DATA);
+
+    //Then
+    assertThat(present).isEqualTo(expected);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturnValue_whenLookup_givenNestedPath() {
+    //Given
+    VariablePath sut = VariablePath.of("containers.1.size");
+
+    //When
+    Object value = sut.lookup(DATA);
+
+    //Then
+    assertThat(value).isEqualTo(40.0);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturnNull_whenLookup_givenMissingPath() {
+    //Given
+    VariablePath sut = VariablePath.of("shipment.date.day");
+
+    //When
+    Object value = sut.lookup(DATA);
+
+    //Then
+    assertThat(value).isNull();
+  }
+
+  @Test
+  void shouldThrowException_whenLookup_givenNonNumericListIndex() {
+    //Given
+    VariablePath sut = VariablePath.of("containers.x");
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.lookup(DATA))
+      .isInstanceOf(JsonLogicEvaluationException.class)
+      .hasCauseInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void shouldEvaluateListElement_whenEvaluate_givenIndexedVariable() {
+    //Given
+    CompiledRule sut = RuleMaker.compile("{\">\":[{\"var\":\"containers.1.size\"},30]}");
+
+    //When
+    Object value = sut.evaluate(DATA);
+
+    //Then
+    assertThat(value).isEqualTo(true);
+  }
+}
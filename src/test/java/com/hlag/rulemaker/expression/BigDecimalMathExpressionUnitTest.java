@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.List;
 import java.util.stream.Stream;
 import lombok.SneakyThrows;
@@ -129,6 +130,121 @@ class BigDecimalMathExpressionUnitTest {
       .hasMessage("Maximum 2 arguments required");
   }
 
+  @ParameterizedTest
+  @MethodSource("fastArguments")
+  @SneakyThrows
+  void shouldCalculateWithPrimitives_whenEvaluate_givenFastMode(BigDecimalMathExpression expression, List<?> arguments, Object expected) {
+    //Given
+    BigDecimalMathExpression sut = expression.withNumericMode(NumericMode.FAST);
+
+    //When
+    Object evaluated = sut.evaluate(arguments, null);
+
+    //Then
+    assertThat(evaluated).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("fastOverflowArguments")
+  @SneakyThrows
+  void shouldCalculateExactly_whenEvaluate_givenFastModeAndIntegralResultBeyondDoublePrecision(BigDecimalMathExpression expression,
+    List<?> arguments) {
+    //Given
+    BigDecimalMathExpression sut = expression.withNumericMode(NumericMode.FAST);
+
+    //When
+    Object evaluated = sut.evaluate(arguments, null);
+
+    //Then
+    assertThat(evaluated).isInstanceOf(BigDecimal.class);
+    assertThat((BigDecimal) evaluated).isEqualByComparingTo((BigDecimal) expression.evaluate(arguments, null));
+  }
+
+  @Test
+  void shouldFailLikeExactMode_whenEvaluate_givenFastModeAndDivisionByZero() {
+    //Given
+    BigDecimalMathExpression sut = BigDecimalMathExpression.DIVIDE.withNumericMode(NumericMode.FAST);
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.evaluate(List.of(1.0, 0.0), null))
+      .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldRoundResult_whenEvaluate_givenExactModeWithMathContext() {
+    //Given
+    BigDecimalMathExpression sut = BigDecimalMathExpression.DIVIDE.withNumericMode(NumericMode.exact(MathContext.DECIMAL32));
+
+    //When
+    Object evaluated = sut.evaluate(List.of(1, 3), null);
+
+    //Then
+    assertThat(evaluated).isEqualTo(new BigDecimal("0.3333333"));
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenExactModeAndNonTerminatingDivision() {
+    //Given
+    BigDecimalMathExpression sut = BigDecimalMathExpression.DIVIDE;
+
+    //When
+    //Then
+    assertThatThrownBy(() -> sut.evaluate(List.of(1, 3), null))
+      .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void shouldKeepCustomReducer_whenWithNumericMode_givenCustomExpression() {
+    //Given
+    BigDecimalMathExpression custom = new BigDecimalMathExpression("avg", (left, right) -> left.add(right).divide(BigDecimal.valueOf(2)));
+
+    //When
+    BigDecimalMathExpression sut = custom.withNumericMode(NumericMode.FAST);
+
+    //Then
+    assertThat(sut).isSameAs(custom);
+    assertThat(sut.getNumericMode()).isEqualTo(NumericMode.EXACT);
+  }
+
+  private static Stream<Arguments> fastArguments() {
+    return Stream.of(
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(1.5, 2.0, 3), 6.5),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(1, 2, 3L), 6.0),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(Long.MAX_VALUE, 1), new BigDecimal("9223372036854775808")),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of("1.5", 1), new BigDecimal("2.5")),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(2.5), 2.5),
+      Arguments.of(BigDecimalMathExpression.SUBTRACT, List.of(2.5), -2.5),
+      Arguments.of(BigDecimalMathExpression.SUBTRACT, List.of(Long.MIN_VALUE), new BigDecimal("9223372036854775808")),
+      Arguments.of(BigDecimalMathExpression.SUBTRACT, List.of(10, 4), 6.0),
+      Arguments.of(BigDecimalMathExpression.MULTIPLY, List.of(1e200, 1e200), new BigDecimal("1.00E+400")),
+      Arguments.of(BigDecimalMathExpression.MULTIPLY, List.of(3.0, 0.5), 1.5),
+      Arguments.of(BigDecimalMathExpression.DIVIDE, List.of(1, 4), 0.25),
+      Arguments.of(BigDecimalMathExpression.DIVIDE, List.of(1.0, 3.0), 1.0 / 3.0),
+      Arguments.of(BigDecimalMathExpression.MODULO, List.of(7, 3), 1.0),
+      Arguments.of(BigDecimalMathExpression.MODULO, List.of(-7.5, 2.0), -1.5),
+      Arguments.of(BigDecimalMathExpression.MIN, List.of(3.0, 1.0, 2.0), 1.0),
+      Arguments.of(BigDecimalMathExpression.MAX, List.of(3, 7, 5), 7.0),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(9007199254740990.0, 1.0, 1.0), 9007199254740992.0),
+      Arguments.of(BigDecimalMathExpression.MODULO, List.of(-4.0, 2.0), 0.0),
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(9007199254740992.0, 1.0), new BigDecimal("9007199254740993.0")),
+      Arguments.of(BigDecimalMathExpression.MULTIPLY, List.of(4503599627370496.0, 4503599627370496.0),
+        new BigDecimal("20282409603651670423947251286016"))
+    );
+  }
+
+  private static Stream<Arguments> fastOverflowArguments() {
+    return Stream.of(
+      // The long result is beyond 2^53
+      Arguments.of(BigDecimalMathExpression.ADD, List.of(9007199254740992.0, 1.0)),
+      Arguments.of(BigDecimalMathExpression.SUBTRACT, List.of(-9007199254740992.0, 3)),
+      // The long calculation overflows
+      Arguments.of(BigDecimalMathExpression.MULTIPLY, List.of(9007199254740992.0, 9007199254740992.0)),
+      Arguments.of(BigDecimalMathExpression.MULTIPLY, List.of(4294967296.0, 4294967296.0, -2.0))
+    );
+  }
+
   private static Stream<Arguments> addArguments() {
     return Stream.of(
       Arguments.of(List.of(new BigDecimal("3.0"), new BigDecimal("4.0")), new BigDecimal("7.0")),
@@ -1,16 +1,31 @@
 package com.hlag.rulemaker.expression;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 import lombok.SneakyThrows;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 class CustomNumericComparisonExpressionUnitTest {
 
+  // Values around the boundaries of the long and double fast paths
+  private static final List<Object> VALUES = Arrays.asList(
+    0, 1, -1, 1200, Long.MAX_VALUE, Long.MIN_VALUE, (1L << 53) + 1, 1L << 53, (short) 7, (byte) -3,
+    0.0, -0.0, 0.1, 1200.0, 1199.9999999999998, 1e300, -1e-300, (double) ((1L << 53) + 2), Double.NaN, Double.POSITIVE_INFINITY,
+    0.1f, new BigDecimal("1200.00"), new BigDecimal("0.1000000000000000055511151231257827"), BigInteger.TEN,
+    "1200", "0.1", "abc", null, true
+  );
+
   @ParameterizedTest
   @MethodSource("gtArguments")
   @SneakyThrows
@@ -107,6 +122,76 @@ class CustomNumericComparisonExpressionUnitTest {
     assertThat(evaluated).isEqualTo(expected);
   }
 
+  @ParameterizedTest
+  @MethodSource("comparisons")
+  void shouldReturnSameResultAsBigDecimal_whenCompareArguments_givenMixedNumberTypes(CustomNumericComparisonExpression sut) {
+    //Given
+    List<List<Object>> argumentLists = new ArrayList<>();
+    for (Object first : VALUES) {
+      for (Object second : VALUES) {
+        if (sut.getNumberOfArguments() == 2) {
+          argumentLists.add(Arrays.asList(first, second));
+        } else {
+          for (Object third : VALUES) {
+            argumentLists.add(Arrays.asList(first, second, third));
+          }
+        }
+      }
+    }
+
+    //When
+    //Then
+    SoftAssertions softly = new SoftAssertions();
+    for (List<Object> arguments : argumentLists) {
+      softly.assertThat(outcome(() -> sut.compareArguments(arguments)))
+        .as("%s %s", sut.key(), arguments)
+        .isEqualTo(outcome(() -> sut.compare(parseAsBefore(arguments))));
+    }
+    softly.assertAll();
+  }
+
+  private static Object outcome(ThrowingSupplier supplier) {
+    Object[] result = new Object[1];
+    Throwable throwable = catchThrowable(() -> result[0] = supplier.get());
+    return throwable != null ? throwable.getClass().getName() + ": " + throwable.getMessage() : result[0];
+  }
+
+  /**
+   * The conversion of {@link NumericExpression#parseArguments(List)} before it got the fast path.
+   */
+  private static BigDecimal[] parseAsBefore(List<Object> arguments) throws Exception {
+    BigDecimal[] values = new BigDecimal[arguments.size()];
+    for (int i = 0; i < values.length; i++) {
+      Object value = arguments.get(i);
+      if (value instanceof String) {
+        try {
+          values[i] = new BigDecimal((String) value);
+        } catch (NumberFormatException e) {
+          throw new JsonLogicEvaluationException("Non numeric argument: " + value);
+        }
+      } else if (!(value instanceof Number)) {
+        throw new JsonLogicEvaluationException("Non numeric argument: " + value);
+      } else {
+        values[i] = new BigDecimal(value.toString());
+      }
+    }
+    return values;
+  }
+
+  private static Stream<CustomNumericComparisonExpression> comparisons() {
+    return Stream.of(
+      CustomNumericComparisonExpression.GT, CustomNumericComparisonExpression.GTE, CustomNumericComparisonExpression.LT,
+      CustomNumericComparisonExpression.LTE, CustomNumericComparisonExpression.LT_LT, CustomNumericComparisonExpression.LT_LTE,
+      CustomNumericComparisonExpression.LTE_LT, CustomNumericComparisonExpression.LTE_LTE
+    );
+  }
+
+  @FunctionalInterface
+  private interface ThrowingSupplier {
+
+    Object get() throws Exception;
+  }
+
   private static Stream<Arguments> gtArguments() {
     return Stream.of(
       Arguments.of(List.of(2, 1), true),
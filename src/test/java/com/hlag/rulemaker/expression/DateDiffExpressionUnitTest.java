@@ -4,7 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -56,6 +62,115 @@ class DateDiffExpressionUnitTest {
         "dateDiffExpression expects exactly 3 arguments: dateTo(YYYY-MM-DD), dateNow(YYYY-MM-DD), measuringRule");
   }
 
+  @Test
+  @SneakyThrows
+  void shouldMatchDayByDayCount_whenEvaluate_givenBusinessDaysOverManyRanges() {
+    //Given
+    LocalDate first = LocalDate.of(2023, 12, 20);
+    List<LocalDate> dates = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      dates.add(first.plusDays(i * 5L + i % 7));
+    }
+
+    //When
+    //Then
+    for (LocalDate dateNow : dates) {
+      for (LocalDate dateTo : dates) {
+        Object result = DateDiffExpression.INSTANCE.evaluate(List.of(dateTo.toString(), dateNow.toString(), "BUSINESS_DAYS"), null);
+        assertThat(result).as("%s to %s", dateNow, dateTo).isEqualTo(countBusinessDays(dateNow, dateTo, Set.of()));
+      }
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldSkipHolidays_whenEvaluate_givenBusinessDaysWithCalendar() {
+    //Given
+    Set<LocalDate> holidays = Set.of(LocalDate.of(2024, 3, 29), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1),
+      LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 28));
+    DateDiffExpression sut = DateDiffExpression.INSTANCE.withHolidayCalendars(List.of(HolidayCalendar.of("DEHAM", holidays)));
+    List<LocalDate> dates = List.of(LocalDate.of(2023, 1, 2), LocalDate.of(2024, 3, 28), LocalDate.of(2024, 3, 29),
+      LocalDate.of(2024, 4, 2), LocalDate.of(2024, 5, 1), LocalDate.of(2024, 12, 31), LocalDate.of(2025, 6, 1));
+
+    //When
+    //Then
+    for (LocalDate dateNow : dates) {
+      for (LocalDate dateTo : dates) {
+        Object result = sut.evaluate(List.of(dateTo.toString(), dateNow.toString(), DayType.BUSINESS_DAYS.withCalendar("DEHAM")), null);
+        assertThat(result).as("%s to %s", dateNow, dateTo).isEqualTo(countBusinessDays(dateNow, dateTo, holidays));
+      }
+    }
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenUnknownHolidayCalendar() {
+    //Given
+    List<String> arguments = List.of("2024-04-19", "2024-04-20", DayType.BUSINESS_DAYS.withCalendar("NLRTM"));
+
+    //When
+    //Then
+    assertThatThrownBy(() -> DateDiffExpression.INSTANCE.evaluate(arguments, null))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Unknown holiday calendar 'NLRTM'");
+  }
+
+  @Test
+  void shouldThrowException_whenWithCalendar_givenCalendarDays() {
+    //Given
+    //When
+    //Then
+    assertThatThrownBy(() -> DayType.CALENDAR_DAYS.withCalendar("DEHAM"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Only BUSINESS_DAYS can reference a holiday calendar");
+  }
+
+  private static long countBusinessDays(LocalDate start, LocalDate end, Set<LocalDate> holidays) {
+    long businessDays = 0;
+    for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY && !holidays.contains(date)) {
+        businessDays++;
+      }
+    }
+    return businessDays;
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDateValues")
+  @SneakyThrows
+  void shouldCalculateSameDifferenceAsForStrings_whenEvaluate_givenDateValues(Object dateTo, Object dateNow) {
+    //Given
+    List<Object> arguments = List.of(dateTo, dateNow, DayType.BUSINESS_DAYS.getValue());
+
+    //When
+    Object result = DateDiffExpression.INSTANCE.evaluate(arguments, null);
+
+    //Then
+    assertThat(result).isEqualTo(DateDiffExpression.INSTANCE.evaluate(List.of("2024-05-03", "2024-04-19", "BUSINESS_DAYS"), null));
+  }
+
+  @Test
+  void shouldThrowException_whenEvaluate_givenFractionalEpochDay() {
+    //Given
+    List<Object> arguments = List.of(19846.5, "2024-04-19", DayType.CALENDAR_DAYS.getValue());
+
+    //When
+    //Then
+    assertThatThrownBy(() -> DateDiffExpression.INSTANCE.evaluate(arguments, null))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Wrong date as argument: 19846.5");
+  }
+
+  private static Stream<Arguments> provideDateValues() {
+    LocalDate dateTo = LocalDate.of(2024, 5, 3);
+    LocalDate dateNow = LocalDate.of(2024, 4, 19);
+    return Stream.of(
+      Arguments.of(dateTo, dateNow),
+      Arguments.of(dateTo.atTime(LocalTime.NOON), dateNow.atStartOfDay(ZoneOffset.UTC)),
+      Arguments.of((double) dateTo.toEpochDay(), dateNow.toEpochDay()),
+      Arguments.of("2024-05-03", (int) dateNow.toEpochDay())
+    );
+  }
+
   @Test
   void shouldThrowException_whenIncorrectMeasuringRule() {
     //Given
@@ -5,10 +5,14 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 
 class NumericExpressionUnitTest {
 
@@ -73,6 +77,26 @@ class NumericExpressionUnitTest {
       .hasMessage("Non numeric argument: xyz");
   }
 
+  @ParameterizedTest
+  @MethodSource("numbers")
+  @SneakyThrows
+  void shouldKeepValueAndScale_whenToBigDecimal_givenNumber(Number number) {
+    //Given
+    BigDecimal expected = new BigDecimal(number.toString());
+
+    //When
+    BigDecimal converted = NumericExpression.toBigDecimal(number);
+
+    //Then
+    assertThat(converted).isEqualTo(expected);
+    assertThat(converted.scale()).isEqualTo(expected.scale());
+  }
+
+  private static Stream<Number> numbers() {
+    return Stream.of(0, -7, Integer.MAX_VALUE, Long.MIN_VALUE, (short) 12, (byte) -1, 0.0, -0.0, 1200.0, 0.1, 1e-7, 1e21,
+      Double.MAX_VALUE, Double.MIN_VALUE, 0.1f, new BigDecimal("1.2300E+5"), new BigDecimal("0.00"), BigInteger.valueOf(-42));
+  }
+
   private static class TestNumericExpression extends NumericExpression {
 
     @Override